@@ -0,0 +1,59 @@
+package dev.mathalama.backend.config;
+
+import dev.mathalama.backend.domain.Role;
+import dev.mathalama.backend.domain.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        jwtService = new JwtService();
+        // Значения из application.properties
+        setField(jwtService, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        setField(jwtService, "jwtExpiration", 86400000L);
+        user = User.builder()
+                .id(1L)
+                .email("student@gmail.com")
+                .firstname("Айгерим")
+                .lastname("Садыкова")
+                .password("x")
+                .role(Role.USER)
+                .enabled(true)
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    // Путь JwtAuthenticationFilter: извлечь subject, затем проверить токен
+    @Benchmark
+    public boolean extractAndVerify() {
+        String username = jwtService.extractUsername(token);
+        return username != null && jwtService.isTokenValid(token, user);
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
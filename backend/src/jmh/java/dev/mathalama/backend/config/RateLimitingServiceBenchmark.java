@@ -0,0 +1,35 @@
+package dev.mathalama.backend.config;
+
+import io.github.bucket4j.Bucket;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// resolveBucket под конкуренцией: hot — все потоки бьют в несколько IP, spread — много разных IP
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class RateLimitingServiceBenchmark {
+
+    @Param({"4", "100000"})
+    private int distinctKeys;
+
+    private RateLimitingService service;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        service = new RateLimitingService();
+        keys = new String[distinctKeys];
+        for (int i = 0; i < distinctKeys; i++) {
+            keys[i] = "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public Bucket resolveBucket() {
+        return service.resolveBucket(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+}
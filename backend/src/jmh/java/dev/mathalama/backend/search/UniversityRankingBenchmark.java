@@ -0,0 +1,57 @@
+package dev.mathalama.backend.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Персональный рейтинг по снимку на 100k университетов: от весов зависит только число проходов по колонкам
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UniversityRankingBenchmark {
+
+    @Param({"100000"})
+    public int universities;
+
+    private UniversityRanking ranking;
+    private float[] oneDimension;
+    private float[] allDimensions;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        SortedMap<Long, UniversityProfiles.Row> rows = new TreeMap<>();
+        for (long id = 1; id <= universities; id++) {
+            float[] averages = new float[UniversityProfiles.DIMENSIONS];
+            for (int d = 0; d < averages.length; d++) {
+                averages[d] = 1 + random.nextFloat() * 4;
+            }
+            rows.put(id, new UniversityProfiles.Row(id, averages, 1 + random.nextInt(200), random.nextLong(), random.nextLong()));
+        }
+        UniversityProfileStore store = new UniversityProfileStore(null);
+        store.replace(UniversityProfiles.of(rows));
+
+        ranking = new UniversityRanking(store);
+        oneDimension = UniversityRanking.parseWeights("food:1");
+        allDimensions = UniversityRanking.parseWeights(
+                "rating:1,facilities:0.5,opportunities:2,location:0.3,internet:1,food:1.5,difficulty:-1");
+    }
+
+    @Benchmark
+    public UniversityRanking.Ranked[] oneDimensionTop20() {
+        return ranking.top(oneDimension, 20, 1);
+    }
+
+    @Benchmark
+    public UniversityRanking.Ranked[] allDimensionsTop20() {
+        return ranking.top(allDimensions, 20, 1);
+    }
+
+    @Benchmark
+    public UniversityRanking.Ranked[] allDimensionsTop100() {
+        return ranking.top(allDimensions, 100, 1);
+    }
+}
@@ -0,0 +1,77 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.Role;
+import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.domain.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Детерминированные тестовые данные для бенчмарков
+public final class BenchmarkData {
+
+    private static final String[] TAGS = {
+            "общежитие", "стипендия", "военная кафедра", "IT", "спорт", "обмен",
+            "дорого", "сильные преподаватели", "центр города", "столовая", "бюджет", "магистратура"
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static University university(long id) {
+        return University.builder()
+                .id(id)
+                .name("Университет " + id)
+                .country("Казахстан")
+                .city("Алматы")
+                .description("Описание университета " + id)
+                .website("https://uni" + id + ".kz")
+                .logoUrl("https://cdn.example.com/logo/" + id + ".png")
+                .averageRating(4.2)
+                .build();
+    }
+
+    public static List<Review> reviews(University university, int count, long seed) {
+        Random random = new Random(seed);
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = User.builder()
+                    .id((long) i)
+                    .email("student" + i + "@gmail.com")
+                    .firstname(i % 10 == 0 ? "" : "Айгерим")
+                    .lastname("Садыкова")
+                    .password("x")
+                    .role(Role.USER)
+                    .enabled(true)
+                    .build();
+            StringBuilder tags = new StringBuilder();
+            int tagCount = random.nextInt(4);
+            for (int t = 0; t < tagCount; t++) {
+                if (t > 0) {
+                    tags.append(',');
+                }
+                tags.append(TAGS[random.nextInt(TAGS.length)]);
+            }
+            reviews.add(Review.builder()
+                    .id((long) i)
+                    .text("Отзыв номер " + i + ". Учиться интересно, но нагрузка высокая.")
+                    .rating(1 + random.nextInt(5))
+                    .facilities(1 + random.nextInt(5))
+                    .opportunities(1 + random.nextInt(5))
+                    .location(1 + random.nextInt(5))
+                    .internet(1 + random.nextInt(5))
+                    .food(1 + random.nextInt(5))
+                    .difficulty(1 + random.nextInt(5))
+                    .status(i % 3 == 0 ? "Alumnus" : "Current Student")
+                    .tags(tags.toString())
+                    .university(university)
+                    .user(user)
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusHours(i))
+                    .build());
+        }
+        return reviews;
+    }
+}
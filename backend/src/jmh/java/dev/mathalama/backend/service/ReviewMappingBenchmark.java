@@ -0,0 +1,32 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.web.dto.ReviewResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ReviewService.mapToResponse: сборка отображаемого имени и разбор тегов
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReviewMappingBenchmark {
+
+    private List<Review> reviews;
+
+    @Setup
+    public void setup() {
+        reviews = BenchmarkData.reviews(BenchmarkData.university(1), 256, 42);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(256)
+    public void mapToResponse(Blackhole bh) {
+        for (Review review : reviews) {
+            ReviewResponse response = ReviewService.mapToResponse(review);
+            bh.consume(response);
+        }
+    }
+}
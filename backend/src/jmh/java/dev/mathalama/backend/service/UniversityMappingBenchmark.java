@@ -0,0 +1,30 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.web.dto.UniversityResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// UniversityService.mapToResponse: агрегация тегов по N отзывам
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UniversityMappingBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int reviewCount;
+
+    private University university;
+
+    @Setup
+    public void setup() {
+        university = BenchmarkData.university(1);
+        university.setReviews(BenchmarkData.reviews(university, reviewCount, 7));
+    }
+
+    @Benchmark
+    public UniversityResponse mapToResponse() {
+        return UniversityService.mapToResponse(university);
+    }
+}
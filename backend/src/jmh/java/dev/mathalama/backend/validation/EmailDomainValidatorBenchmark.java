@@ -0,0 +1,27 @@
+package dev.mathalama.backend.validation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailDomainValidatorBenchmark {
+
+    private static final String[] EMAILS = {
+            "student@gmail.com", "Student@Mail.Ru", "someone@university.edu.kz", "no-at-sign",
+            "a.very.long.address.with.dots@yandex.ru", "spam@example.com", "x@proton.me", null
+    };
+
+    private final EmailDomainValidator validator = new EmailDomainValidator();
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void isValid(Blackhole bh) {
+        for (String email : EMAILS) {
+            bh.consume(validator.isValid(email));
+        }
+    }
+}
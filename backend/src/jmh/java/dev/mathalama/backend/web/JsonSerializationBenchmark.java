@@ -0,0 +1,85 @@
+package dev.mathalama.backend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.service.BenchmarkData;
+import dev.mathalama.backend.web.dto.ReviewResponse;
+import dev.mathalama.backend.web.dto.UniversityResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сериализация списков ответов так же, как это делает Spring MVC (spring.jackson.* из application.properties)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "500"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<UniversityResponse> universities;
+    private List<ReviewResponse> reviews;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        universities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            University university = BenchmarkData.university(i);
+            universities.add(UniversityResponse.builder()
+                    .id(university.getId())
+                    .name(university.getName())
+                    .country(university.getCountry())
+                    .city(university.getCity())
+                    .description(university.getDescription())
+                    .website(university.getWebsite())
+                    .logoUrl(university.getLogoUrl())
+                    .averageRating(university.getAverageRating())
+                    .tags(List.of("общежитие", "IT", "спорт"))
+                    .build());
+        }
+
+        University university = BenchmarkData.university(1);
+        reviews = new ArrayList<>(size);
+        for (Review review : BenchmarkData.reviews(university, size, 3)) {
+            reviews.add(ReviewResponse.builder()
+                    .id(review.getId())
+                    .text(review.getText())
+                    .rating(review.getRating())
+                    .facilities(review.getFacilities())
+                    .opportunities(review.getOpportunities())
+                    .location(review.getLocation())
+                    .internet(review.getInternet())
+                    .food(review.getFood())
+                    .difficulty(review.getDifficulty())
+                    .status(review.getStatus())
+                    .tags(List.of(review.getTags().split(",")))
+                    .userName(review.getUser().getFirstname())
+                    .userId(review.getUser().getId())
+                    .universityId(university.getId())
+                    .universityName(university.getName())
+                    .createdAt(review.getCreatedAt())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] universities() throws Exception {
+        return objectMapper.writeValueAsBytes(universities);
+    }
+
+    @Benchmark
+    public byte[] reviews() throws Exception {
+        return objectMapper.writeValueAsBytes(reviews);
+    }
+}
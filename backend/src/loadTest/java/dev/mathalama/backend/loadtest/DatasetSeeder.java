@@ -0,0 +1,96 @@
+package dev.mathalama.backend.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Наполняет пустую БД: университеты, читатели с отзывами, писатели без отзывов и один админ
+class DatasetSeeder {
+
+    static final String PASSWORD = "loadtest-password";
+    static final String ADMIN_EMAIL = "admin@loadtest.local";
+
+    private static final String[] CITIES = {"Алматы", "Астана", "Москва", "Санкт-Петербург", "Новосибирск", "Киев", "Минск", "Ташкент"};
+    private static final String[] COUNTRIES = {"Казахстан", "Казахстан", "Россия", "Россия", "Россия", "Украина", "Беларусь", "Узбекистан"};
+    private static final String[] TAGS = {"общежитие", "стипендия", "IT", "спорт", "обмен", "дорого", "центр города", "бюджет"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Random random = new Random(20240901);
+
+    DatasetSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    void seed(LoadTestOptions options) {
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        jdbcTemplate.update("INSERT INTO _user (email, firstname, lastname, password, role, enabled) VALUES (?, ?, ?, ?, 'ADMIN', true)",
+                ADMIN_EMAIL, "Admin", "Loadtest", hash);
+        insertUsers("reader", options.readers(), hash);
+        insertUsers("writer", options.writers(), hash);
+
+        List<Object[]> universities = new ArrayList<>(options.universities());
+        for (int i = 0; i < options.universities(); i++) {
+            int place = i % CITIES.length;
+            universities.add(new Object[]{"Университет " + i, COUNTRIES[place], CITIES[place],
+                    "Описание университета " + i + ". ".repeat(20), "https://uni" + i + ".example", null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO university (name, country, city, description, website, logo_url, average_rating) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", universities);
+
+        List<Long> universityIds = jdbcTemplate.queryForList("SELECT id FROM university ORDER BY id", Long.class);
+        List<Long> readerIds = jdbcTemplate.queryForList("SELECT id FROM _user WHERE email LIKE 'reader%' ORDER BY id", Long.class);
+
+        List<Object[]> reviews = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusYears(3);
+        int perUniversity = Math.min(options.reviewsPerUniversity(), readerIds.size());
+        for (int u = 0; u < universityIds.size(); u++) {
+            for (int r = 0; r < perUniversity; r++) {
+                Long userId = readerIds.get((u + r) % readerIds.size());
+                reviews.add(new Object[]{
+                        "Сид-отзыв " + u + "/" + r + ". Учиться интересно, нагрузка высокая.",
+                        score(), score(), score(), score(), score(), score(), score(),
+                        r % 3 == 0 ? "Alumnus" : "Current Student",
+                        TAGS[random.nextInt(TAGS.length)] + "," + TAGS[random.nextInt(TAGS.length)],
+                        universityIds.get(u), userId,
+                        Timestamp.valueOf(start.plusMinutes(random.nextInt(3 * 365 * 24 * 60)))
+                });
+                if (reviews.size() == 5000) {
+                    insertReviews(reviews);
+                }
+            }
+        }
+        insertReviews(reviews);
+
+        jdbcTemplate.update("UPDATE university u SET average_rating = " +
+                "(SELECT coalesce(round(avg(r.rating)::numeric, 1), 0) FROM review r WHERE r.university_id = u.id)");
+    }
+
+    private void insertUsers(String prefix, int count, String hash) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{prefix + i + "@loadtest.local", "Load", prefix + i, hash});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO _user (email, firstname, lastname, password, role, enabled) VALUES (?, ?, ?, ?, 'USER', true)", rows);
+    }
+
+    private void insertReviews(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO review (text, rating, facilities, opportunities, location, internet, food, difficulty, " +
+                "status, tags, university_id, user_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private int score() {
+        return 1 + random.nextInt(5);
+    }
+}
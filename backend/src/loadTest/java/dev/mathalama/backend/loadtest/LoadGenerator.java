@@ -0,0 +1,189 @@
+package dev.mathalama.backend.loadtest;
+
+import dev.mathalama.backend.loadtest.LoadTestOptions.Scenario;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are issued on a fixed schedule regardless of how fast the
+ * server answers, and latency is measured from the scheduled start, so a stalled server shows up
+ * in the percentiles instead of silently lowering the offered rate (coordinated omission).
+ */
+class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] SUGGEST_QUERIES = {"у", "ун", "унив", "алм", "моск", "кие", "астана", "университет 1"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final List<Long> universityIds;
+    private final List<String> writerTokens;
+    private final String adminToken;
+    private final int readers;
+
+    private final Scenario[] scenarioTable;
+    private final AtomicLong reviewSequence = new AtomicLong();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    LoadGenerator(String baseUrl, LoadTestOptions options, List<Long> universityIds,
+                  List<String> writerTokens, String adminToken) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.universityIds = universityIds;
+        this.writerTokens = writerTokens;
+        this.adminToken = adminToken;
+        this.readers = options.readers();
+        this.scenarioTable = options.mix().entrySet().stream()
+                .flatMap(e -> java.util.Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Scenario[]::new);
+    }
+
+    Map<String, EndpointStats> run(Duration warmup, Duration duration) throws InterruptedException {
+        drive(warmup, false);
+        stats.clear();
+        long start = System.nanoTime();
+        drive(duration, true);
+        long elapsed = System.nanoTime() - start;
+        stats.values().forEach(s -> s.elapsedNanos = elapsed);
+        return new TreeMap<>(stats);
+    }
+
+    private void drive(Duration duration, boolean record) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Call call = nextCall();
+            if (record) {
+                statsFor(call.endpoint()).requests.increment();
+            }
+            if (!inFlight.tryAcquire()) {
+                // Сервер не успевает: запрос считается ошибкой, а не откладывается
+                if (record) {
+                    statsFor(call.endpoint()).errors.increment();
+                }
+                continue;
+            }
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        long latency = System.nanoTime() - scheduled;
+                        boolean ok = error == null && response.statusCode() < 400;
+                        if (record) {
+                            EndpointStats endpoint = statsFor(call.endpoint());
+                            endpoint.latency.recordValue(Math.min(latency, endpoint.latency.getHighestTrackableValue()));
+                            if (!ok) {
+                                endpoint.errors.increment();
+                            }
+                        }
+                    });
+        }
+        // Дожидаемся ответов на уже отправленные запросы
+        inFlight.tryAcquire(options.maxInFlight(), REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    private EndpointStats statsFor(String endpoint) {
+        return stats.computeIfAbsent(endpoint, k -> new EndpointStats());
+    }
+
+    private Call nextCall() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Scenario scenario = scenarioTable[random.nextInt(scenarioTable.length)];
+        Long universityId = universityIds.get(random.nextInt(universityIds.size()));
+        return switch (scenario) {
+            case BROWSE -> switch (random.nextInt(10)) {
+                case 0 -> get("GET /universities", "/universities", null);
+                case 1, 2 -> get("GET /universities/suggest",
+                        "/universities/suggest?q=" + encode(SUGGEST_QUERIES[random.nextInt(SUGGEST_QUERIES.length)]), null);
+                case 3, 4, 5 -> get("GET /universities/{id}", "/universities/" + universityId, null);
+                case 6 -> get("GET /universities/{id}/stats", "/universities/" + universityId + "/stats", null);
+                default -> get("GET /reviews/university/{id}", "/reviews/university/" + universityId, null);
+            };
+            case LOGIN -> post("POST /auth/authenticate", "/auth/authenticate", null,
+                    "{\"email\":\"reader" + random.nextInt(readers) + "@loadtest.local\",\"password\":\"" + DatasetSeeder.PASSWORD + "\"}");
+            case REVIEW -> nextReview();
+            case ADMIN -> random.nextBoolean()
+                    ? get("GET /users", "/users", adminToken)
+                    : get("GET /reviews", "/reviews", adminToken);
+        };
+    }
+
+    // Каждая пара (писатель, университет) используется один раз, иначе сервис отклонит повторный отзыв
+    private Call nextReview() {
+        long n = reviewSequence.getAndIncrement();
+        int writer = (int) (n % writerTokens.size());
+        int university = (int) ((n / writerTokens.size()) % universityIds.size());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = """
+                {"universityId":%d,"text":"Нагрузочный отзыв %d","rating":%d,"facilities":%d,"opportunities":%d,\
+                "location":%d,"internet":%d,"food":%d,"difficulty":%d,"status":"Current Student","tags":["IT","спорт"]}
+                """.formatted(universityIds.get(university), n,
+                1 + random.nextInt(5), 1 + random.nextInt(5), 1 + random.nextInt(5), 1 + random.nextInt(5),
+                1 + random.nextInt(5), 1 + random.nextInt(5), 1 + random.nextInt(5));
+        return post("POST /reviews", "/reviews", writerTokens.get(writer), body);
+    }
+
+    private Call get(String endpoint, String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return new Call(endpoint, builder.build());
+    }
+
+    private Call post(String endpoint, String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return new Call(endpoint, builder.build());
+    }
+
+    private static String encode(String value) {
+        return java.net.URLEncoder.encode(value, java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    private record Call(String endpoint, HttpRequest request) {
+    }
+
+    static class EndpointStats {
+        // 1 мкс .. 60 с, 3 значащие цифры
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(60), 3);
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        volatile long elapsedNanos;
+    }
+}
@@ -0,0 +1,24 @@
+package dev.mathalama.backend.loadtest;
+
+import dev.mathalama.backend.service.EmailService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Bean;
+
+// Подменяет EmailService (единственного клиента Resend): под нагрузкой письма не отправляются
+// Требует spring.main.allow-bean-definition-overriding=true, см. LoadTestRunner
+@Configuration(proxyBeanMethods = false)
+class LoadTestConfiguration {
+
+    @Bean("emailService")
+    EmailService emailService() {
+        return new EmailService(null, null) {
+            @Override
+            public void sendVerificationEmail(String to, String verificationLink) {
+            }
+
+            @Override
+            public void sendPasswordResetEmail(String to, String resetLink) {
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package dev.mathalama.backend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Параметры прогона, задаются через -Ploadtest.* (см. задачу loadTest в build.gradle)
+record LoadTestOptions(
+        int universities,
+        int reviewsPerUniversity,
+        int readers,
+        int writers,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        Map<Scenario, Integer> mix,
+        Path reportDir
+) {
+
+    static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+                intProperty("loadtest.universities", 300),
+                intProperty("loadtest.reviewsPerUniversity", 30),
+                intProperty("loadtest.readers", 200),
+                intProperty("loadtest.writers", 500),
+                intProperty("loadtest.rate", 200),
+                Duration.ofSeconds(intProperty("loadtest.warmup", 10)),
+                Duration.ofSeconds(intProperty("loadtest.duration", 60)),
+                intProperty("loadtest.maxInFlight", 1000),
+                parseMix(System.getProperty("loadtest.mix", "browse=80,login=5,review=10,admin=5")),
+                Path.of(System.getProperty("loadtest.reportDir", "build/reports/loadtest"))
+        );
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    // "browse=80,login=5,review=10,admin=5"
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + part);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                mix.put(Scenario.valueOf(kv[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must contain at least one scenario");
+        }
+        return mix;
+    }
+
+    enum Scenario {
+        BROWSE,  // анонимный просмотр каталога
+        LOGIN,   // POST /auth/authenticate (BCrypt)
+        REVIEW,  // публикация отзыва
+        ADMIN    // админские списки
+    }
+}
@@ -0,0 +1,153 @@
+package dev.mathalama.backend.loadtest;
+
+import dev.mathalama.backend.BackendApplication;
+import dev.mathalama.backend.config.JwtService;
+import dev.mathalama.backend.repository.UserRepository;
+import dev.mathalama.backend.search.UniversitySuggestionIndex;
+import dev.mathalama.backend.service.UniversityAggregateService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application against embedded PostgreSQL and Redis, seeds a dataset, drives the scenario
+ * mix at a fixed rate and prints throughput, error rate and latency percentiles per endpoint.
+ * Run with {@code ./gradlew loadTest}; options are listed in {@link LoadTestOptions}.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            int redisPort = freePort();
+            RedisServer redis = new RedisServer(redisPort);
+            redis.start();
+            ConfigurableApplicationContext context = null;
+            try {
+                context = new SpringApplicationBuilder(BackendApplication.class, LoadTestConfiguration.class)
+                        .properties(applicationProperties(postgres.getJdbcUrl("postgres", "postgres"), redisPort))
+                        .run(args);
+
+                System.out.println("Seeding dataset...");
+                new DatasetSeeder(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class)).seed(options);
+                // Данные вставлены в обход сервисов: гистограммы, тренды и averageRating пересчитываются целиком
+                context.getBean(UniversityAggregateService.class).refresh(
+                        context.getBean(JdbcTemplate.class).queryForList("SELECT id FROM university", Long.class));
+                context.getBean(UniversitySuggestionIndex.class).load();
+
+                LoadGenerator generator = createGenerator(context, options);
+                System.out.printf("Running: %d req/s, warmup %ds, measure %ds, mix %s%n",
+                        options.rate(), options.warmup().toSeconds(), options.duration().toSeconds(), options.mix());
+                Map<String, LoadGenerator.EndpointStats> stats = generator.run(options.warmup(), options.duration());
+                report(stats, options);
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+                redis.stop();
+            }
+        }
+    }
+
+    private static Map<String, Object> applicationProperties(String jdbcUrl, int redisPort) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.data.redis.host", "localhost");
+        properties.put("spring.data.redis.port", redisPort);
+        properties.put("spring.data.redis.password", "");
+        properties.put("resend.api.key", "re_loadtest");
+        properties.put("spring.main.allow-bean-definition-overriding", true);
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+
+    private static LoadGenerator createGenerator(ConfigurableApplicationContext context, LoadTestOptions options) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        // Токены выпускаются напрямую, чтобы подготовка не упиралась в BCrypt
+        List<String> writerTokens = userRepository.findAll().stream()
+                .filter(user -> user.getEmail().startsWith("writer"))
+                .map(jwtService::generateToken)
+                .toList();
+        String adminToken = jwtService.generateToken(userRepository.findByEmail(DatasetSeeder.ADMIN_EMAIL).orElseThrow());
+        List<Long> universityIds = jdbcTemplate.queryForList("SELECT id FROM university ORDER BY id", Long.class);
+
+        return new LoadGenerator("http://localhost:" + port + "/api/v1", options, universityIds, writerTokens, adminToken);
+    }
+
+    private static void report(Map<String, LoadGenerator.EndpointStats> stats, LoadTestOptions options) throws IOException {
+        StringWriter text = new StringWriter();
+        StringBuilder csv = new StringBuilder("endpoint,requests,errors,error_rate,throughput_rps,p50_ms,p95_ms,p99_ms,p999_ms,max_ms\n");
+        PrintWriter out = new PrintWriter(text);
+        out.printf("%-32s %9s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "err%", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        long totalRequests = 0;
+        long totalErrors = 0;
+        double seconds = 0;
+        for (Map.Entry<String, LoadGenerator.EndpointStats> entry : stats.entrySet()) {
+            LoadGenerator.EndpointStats s = entry.getValue();
+            Histogram h = s.latency;
+            long requests = s.requests.sum();
+            long errors = s.errors.sum();
+            seconds = s.elapsedNanos / 1e9;
+            double errorRate = requests == 0 ? 0 : 100.0 * errors / requests;
+            double throughput = requests / seconds;
+            out.printf("%-32s %9d %8d %6.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), requests, errors, errorRate, throughput,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+            csv.append(String.format(java.util.Locale.ROOT, "\"%s\",%d,%d,%.4f,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    entry.getKey(), requests, errors, errorRate / 100, throughput,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue())));
+            totalRequests += requests;
+            totalErrors += errors;
+        }
+        out.printf("%nTotal: %d requests, %.1f req/s, error rate %.2f%% (target %d req/s)%n",
+                totalRequests, seconds == 0 ? 0 : totalRequests / seconds,
+                totalRequests == 0 ? 0 : 100.0 * totalErrors / totalRequests, options.rate());
+        out.flush();
+        System.out.println();
+        System.out.print(text);
+
+        Files.createDirectories(options.reportDir());
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Files.writeString(options.reportDir().resolve("loadtest-" + stamp + ".txt"), text.toString());
+        Files.writeString(options.reportDir().resolve("loadtest-" + stamp + ".csv"), csv.toString());
+        System.out.println("Report written to " + options.reportDir().toAbsolutePath());
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
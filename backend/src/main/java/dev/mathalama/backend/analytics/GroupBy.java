@@ -0,0 +1,19 @@
+package dev.mathalama.backend.analytics;
+
+import java.util.Locale;
+
+// Разрезы аналитики; порядок констант — порядок колонок кодов в ReviewColumns
+public enum GroupBy {
+    COUNTRY,
+    CITY,
+    STATUS,
+    YEAR;
+
+    public static GroupBy parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown groupBy '" + value + "', expected country, city, status or year");
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package dev.mathalama.backend.analytics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import dev.mathalama.backend.domain.ReviewDimension;
+import dev.mathalama.backend.web.dto.RatingBreakdown;
+import dev.mathalama.backend.web.dto.TagBreakdown;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Group-by analytics over reviews (average scores and tag frequencies by country, city, status or year).
+ * <p>
+ * Queries never touch the database: they aggregate an in-memory {@link ReviewColumns} snapshot in
+ * parallel chunks on a dedicated fork/join pool. The snapshot is reloaded periodically by streaming the
+ * review table through a separate one-connection Hikari pool ({@code analytics}), pointed at the first
+ * read replica when replicas are configured, so a reload neither competes for OLTP connections nor
+ * loads the primary when it does not have to.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewAnalyticsService {
+
+    private static final int MIN_CHUNK = 50_000;
+    // Плотный счётчик группа × тег на каждый кусок; больше — слишком много памяти
+    private static final int MAX_GROUP_TAG_CELLS = 1 << 20;
+
+    private interface RangeTask<T> {
+        T apply(int from, int to);
+    }
+
+    private final DataSourceProperties dataSourceProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.datasource.replica.urls:}")
+    private String replicaUrls;
+
+    @Value("${application.analytics.fetch-size:10000}")
+    private int fetchSize;
+
+    private HikariDataSource dataSource;
+    private ForkJoinPool pool;
+    private volatile ReviewColumns snapshot;
+
+    @PostConstruct
+    void init() {
+        String replica = Arrays.stream(replicaUrls.split(",")).map(String::trim).filter(s -> !s.isEmpty()).findFirst().orElse(null);
+        dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(replica != null ? replica : dataSourceProperties.determineUrl())
+                .build();
+        dataSource.setPoolName("analytics");
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    @PreDestroy
+    void close() {
+        pool.shutdownNow();
+        dataSource.close();
+    }
+
+    @Scheduled(fixedDelayString = "${application.analytics.refresh-interval-ms:900000}",
+            initialDelayString = "${application.analytics.initial-delay-ms:30000}")
+    public synchronized void refresh() {
+        long start = System.nanoTime();
+        try {
+            snapshot = load();
+            log.info("Review analytics snapshot loaded: {} reviews in {} ms",
+                    snapshot.size, (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Review analytics snapshot refresh failed, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    // -1, если снимок ещё не загружен
+    public int snapshotSize() {
+        ReviewColumns columns = snapshot;
+        return columns == null ? -1 : columns.size;
+    }
+
+    public RatingBreakdown ratings(GroupBy groupBy) {
+        ReviewColumns columns = requireSnapshot();
+        int[] codes = columns.codes(groupBy);
+        String[] keys = columns.dictionary(groupBy);
+        int groups = keys.length;
+
+        // counts[g], sums[g * DIMENSIONS + d]
+        List<long[][]> partials = parallel(columns.size, (from, to) -> {
+            long[] counts = new long[groups];
+            long[] sums = new long[groups * ReviewColumns.DIMENSIONS];
+            for (int row = from; row < to; row++) {
+                counts[codes[row]]++;
+            }
+            for (int d = 0; d < ReviewColumns.DIMENSIONS; d++) {
+                byte[] scores = columns.scores[d];
+                for (int row = from; row < to; row++) {
+                    sums[codes[row] * ReviewColumns.DIMENSIONS + d] += scores[row];
+                }
+            }
+            return new long[][]{counts, sums};
+        });
+        long[] counts = new long[groups];
+        long[] sums = new long[groups * ReviewColumns.DIMENSIONS];
+        for (long[][] partial : partials) {
+            Arrays.setAll(counts, g -> counts[g] + partial[0][g]);
+            Arrays.setAll(sums, i -> sums[i] + partial[1][i]);
+        }
+
+        List<RatingBreakdown.Group> result = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            if (counts[g] == 0) {
+                continue;
+            }
+            Map<String, Double> averages = new LinkedHashMap<>();
+            for (ReviewDimension dimension : ReviewDimension.values()) {
+                double average = (double) sums[g * ReviewColumns.DIMENSIONS + dimension.ordinal()] / counts[g];
+                averages.put(dimension.column(), Math.round(average * 100) / 100.0);
+            }
+            result.add(RatingBreakdown.Group.builder().key(keys[g]).reviews(counts[g]).averages(averages).build());
+        }
+        result.sort(Comparator.comparingLong(RatingBreakdown.Group::getReviews).reversed());
+        return RatingBreakdown.builder()
+                .groupBy(groupBy.name().toLowerCase())
+                .snapshotAt(columns.loadedAt)
+                .totalReviews(columns.size)
+                .groups(result)
+                .build();
+    }
+
+    public TagBreakdown tags(GroupBy groupBy, int limit) {
+        ReviewColumns columns = requireSnapshot();
+        int[] codes = columns.codes(groupBy);
+        String[] keys = columns.dictionary(groupBy);
+        int groups = keys.length;
+        int tagCount = columns.tags.length;
+        if ((long) groups * Math.max(1, tagCount) > MAX_GROUP_TAG_CELLS) {
+            throw new RuntimeException("Too many " + groupBy.name().toLowerCase() + " × tag combinations for a breakdown");
+        }
+
+        List<long[][]> partials = parallel(columns.size, (from, to) -> {
+            long[] reviews = new long[groups];
+            long[] cells = new long[groups * tagCount];
+            for (int row = from; row < to; row++) {
+                int group = codes[row];
+                reviews[group]++;
+                for (int t = columns.tagOffsets[row]; t < columns.tagOffsets[row + 1]; t++) {
+                    cells[group * tagCount + columns.tagCodes[t]]++;
+                }
+            }
+            return new long[][]{reviews, cells};
+        });
+        long[] reviews = new long[groups];
+        long[] cells = new long[groups * tagCount];
+        for (long[][] partial : partials) {
+            Arrays.setAll(reviews, g -> reviews[g] + partial[0][g]);
+            Arrays.setAll(cells, i -> cells[i] + partial[1][i]);
+        }
+
+        int top = Math.max(1, Math.min(limit, 50));
+        List<TagBreakdown.Group> result = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            if (reviews[g] == 0) {
+                continue;
+            }
+            int base = g * tagCount;
+            Map<String, Long> tags = IntStream.range(0, tagCount)
+                    .filter(t -> cells[base + t] > 0)
+                    .boxed()
+                    .sorted(Comparator.comparingLong((Integer t) -> cells[base + t]).reversed())
+                    .limit(top)
+                    .collect(Collectors.toMap(t -> columns.tags[t], t -> cells[base + t], (a, b) -> a, LinkedHashMap::new));
+            result.add(TagBreakdown.Group.builder().key(keys[g]).reviews(reviews[g]).tags(tags).build());
+        }
+        result.sort(Comparator.comparingLong(TagBreakdown.Group::getReviews).reversed());
+        return TagBreakdown.builder()
+                .groupBy(groupBy.name().toLowerCase())
+                .snapshotAt(columns.loadedAt)
+                .groups(result)
+                .build();
+    }
+
+    private ReviewColumns requireSnapshot() {
+        ReviewColumns columns = snapshot;
+        if (columns == null) {
+            throw new RuntimeException("Analytics snapshot is not loaded yet");
+        }
+        return columns;
+    }
+
+    // Куски не меньше MIN_CHUNK строк, не больше одного на поток пула
+    private <T> List<T> parallel(int size, RangeTask<T> task) {
+        int chunks = Math.max(1, Math.min(pool.getParallelism(), size / MIN_CHUNK));
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) size * c / chunks);
+            int to = (int) ((long) size * (c + 1) / chunks);
+            tasks.add(pool.submit(() -> task.apply(from, to)));
+        }
+        return tasks.stream().map(ForkJoinTask::join).toList();
+    }
+
+    private ReviewColumns load() throws SQLException {
+        String scoreColumns = Arrays.stream(ReviewDimension.values())
+                .map(dimension -> "r." + dimension.column())
+                .collect(Collectors.joining(", "));
+        String sql = "SELECT " + scoreColumns + ", u.country, u.city, r.status, "
+                + "CAST(extract(year FROM r.created_at) AS int) AS year, r.tags "
+                + "FROM review r JOIN university u ON u.id = r.university_id";
+
+        ReviewColumns.Builder builder = new ReviewColumns.Builder();
+        int[] scores = new int[ReviewColumns.DIMENSIONS];
+        String[] groupValues = new String[GroupBy.values().length];
+        // Курсор PostgreSQL (fetch size) работает только вне autocommit
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        for (int d = 0; d < scores.length; d++) {
+                            scores[d] = rs.getInt(d + 1);
+                        }
+                        groupValues[GroupBy.COUNTRY.ordinal()] = rs.getString("country");
+                        groupValues[GroupBy.CITY.ordinal()] = rs.getString("city");
+                        groupValues[GroupBy.STATUS.ordinal()] = rs.getString("status");
+                        groupValues[GroupBy.YEAR.ordinal()] = rs.getString("year");
+                        builder.add(scores, groupValues, rs.getString("tags"));
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,129 @@
+package dev.mathalama.backend.analytics;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only columnar copy of the review table for analytics. Scores are stored one byte per review
+ * per dimension, strings (country, city, status, year, tags) as int codes into per-column dictionaries.
+ * Tags are variable length: review {@code i} has codes {@code tagCodes[tagOffsets[i] .. tagOffsets[i + 1])}.
+ */
+final class ReviewColumns {
+
+    static final int DIMENSIONS = ReviewDimension.values().length;
+
+    final int size;
+    // scores[dimension.ordinal()][row], 1..5
+    final byte[][] scores;
+    final int[][] groupCodes;
+    final String[][] dictionaries;
+    final int[] tagOffsets;
+    final int[] tagCodes;
+    final String[] tags;
+    final LocalDateTime loadedAt;
+
+    private ReviewColumns(Builder builder) {
+        size = builder.size;
+        scores = new byte[DIMENSIONS][];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            scores[d] = Arrays.copyOf(builder.scores[d], size);
+        }
+        GroupBy[] groups = GroupBy.values();
+        groupCodes = new int[groups.length][];
+        dictionaries = new String[groups.length][];
+        for (GroupBy group : groups) {
+            groupCodes[group.ordinal()] = Arrays.copyOf(builder.groupCodes[group.ordinal()], size);
+            dictionaries[group.ordinal()] = builder.dictionaries[group.ordinal()].values.toArray(String[]::new);
+        }
+        tagOffsets = Arrays.copyOf(builder.tagOffsets, size + 1);
+        tagCodes = Arrays.copyOf(builder.tagCodes, builder.tagCount);
+        tags = builder.tagDictionary.values.toArray(String[]::new);
+        loadedAt = LocalDateTime.now();
+    }
+
+    int[] codes(GroupBy groupBy) {
+        return groupCodes[groupBy.ordinal()];
+    }
+
+    String[] dictionary(GroupBy groupBy) {
+        return dictionaries[groupBy.ordinal()];
+    }
+
+    static final class Builder {
+
+        private int size;
+        private final byte[][] scores = new byte[DIMENSIONS][1024];
+        private final int[][] groupCodes = new int[GroupBy.values().length][1024];
+        private final Dictionary[] dictionaries = new Dictionary[GroupBy.values().length];
+        private int[] tagOffsets = new int[1025];
+        private int[] tagCodes = new int[1024];
+        private int tagCount;
+        private final Dictionary tagDictionary = new Dictionary();
+
+        Builder() {
+            for (int i = 0; i < dictionaries.length; i++) {
+                dictionaries[i] = new Dictionary();
+            }
+        }
+
+        // scores — в порядке ReviewDimension, groupValues — в порядке GroupBy
+        void add(int[] rowScores, String[] groupValues, String rawTags) {
+            if (size == scores[0].length) {
+                int capacity = size * 2;
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    scores[d] = Arrays.copyOf(scores[d], capacity);
+                }
+                for (int g = 0; g < groupCodes.length; g++) {
+                    groupCodes[g] = Arrays.copyOf(groupCodes[g], capacity);
+                }
+                tagOffsets = Arrays.copyOf(tagOffsets, capacity + 1);
+            }
+            for (int d = 0; d < DIMENSIONS; d++) {
+                scores[d][size] = (byte) rowScores[d];
+            }
+            for (int g = 0; g < groupCodes.length; g++) {
+                groupCodes[g][size] = dictionaries[g].code(groupValues[g]);
+            }
+            if (rawTags != null && !rawTags.isEmpty()) {
+                for (String tag : rawTags.split(",")) {
+                    String trimmed = tag.trim();
+                    if (trimmed.isEmpty()) {
+                        continue;
+                    }
+                    if (tagCount == tagCodes.length) {
+                        tagCodes = Arrays.copyOf(tagCodes, tagCount * 2);
+                    }
+                    tagCodes[tagCount++] = tagDictionary.code(trimmed);
+                }
+            }
+            size++;
+            tagOffsets[size] = tagCount;
+        }
+
+        ReviewColumns build() {
+            return new ReviewColumns(this);
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            String key = value == null || value.isBlank() ? "unknown" : value;
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = values.size();
+                codes.put(key, code);
+                values.add(key);
+            }
+            return code;
+        }
+    }
+}
@@ -49,6 +49,6 @@ public class ApplicationConfig implements WebMvcConfigurer {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimingPasswordEncoder(new BCryptPasswordEncoder());
     }
 }
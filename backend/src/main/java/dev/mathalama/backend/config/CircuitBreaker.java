@@ -0,0 +1,101 @@
+package dev.mathalama.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for calls to Redis (or any other Spring {@link DataAccessException} source).
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and calls go straight to the
+ * fallback without touching the dependency. Once {@code openDuration} has passed, a single caller is
+ * let through as a probe (half-open): success closes the circuit, failure opens it for another period.
+ * Everyone else keeps using the fallback while the probe is in flight.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public <T> T call(Supplier<T> action, Supplier<T> fallback) {
+        boolean probe = false;
+        if (state != State.CLOSED) {
+            if (System.nanoTime() - openedAt < openNanos || !probeInFlight.compareAndSet(false, true)) {
+                return fallback.get();
+            }
+            probe = true;
+            state = State.HALF_OPEN;
+        }
+        try {
+            T result = action.get();
+            onSuccess(probe);
+            return result;
+        } catch (DataAccessException e) {
+            onFailure(probe, e);
+            return fallback.get();
+        } finally {
+            if (probe) {
+                probeInFlight.set(false);
+            }
+        }
+    }
+
+    public void run(Runnable action, Runnable fallback) {
+        call(() -> {
+            action.run();
+            return null;
+        }, () -> {
+            fallback.run();
+            return null;
+        });
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private void onSuccess(boolean probe) {
+        consecutiveFailures.set(0);
+        if (probe) {
+            state = State.CLOSED;
+            log.info("Circuit '{}' closed", name);
+        }
+    }
+
+    private void onFailure(boolean probe, DataAccessException e) {
+        if (probe) {
+            open();
+            log.warn("Circuit '{}' probe failed, staying open: {}", name, e.getMessage());
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && state == State.CLOSED) {
+            open();
+            log.warn("Circuit '{}' opened after {} consecutive failures: {}", name, failureThreshold, e.getMessage());
+        }
+    }
+
+    // Сначала время, потом состояние: читатель не должен увидеть OPEN со старым openedAt
+    private void open() {
+        openedAt = System.nanoTime();
+        state = State.OPEN;
+    }
+}
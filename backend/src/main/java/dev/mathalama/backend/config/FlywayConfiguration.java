@@ -0,0 +1,35 @@
+package dev.mathalama.backend.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+// Таблицы создаёт Hibernate (ddl-auto=update), поэтому миграции (db/migration: заполнение данных, индексы
+// CONCURRENTLY) запускаются после EntityManagerFactory, но до старта веб-сервера и @Scheduled-задач.
+// Flyway держит блокировку истории миграций, так что при одновременном старте узлов каждая выполняется один раз
+@Configuration
+public class FlywayConfiguration {
+
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigration() {
+        return flyway -> {
+        };
+    }
+
+    // CREATE INDEX CONCURRENTLY ждёт все открытые транзакции, в том числе транзакционную блокировку самого Flyway
+    @Bean
+    public FlywayConfigurationCustomizer sessionLevelFlywayLock() {
+        return configuration -> configuration.configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+
+    @Bean
+    public InitializingBean flywayAfterHibernate(Flyway flyway, EntityManagerFactory entityManagerFactory) {
+        return flyway::migrate;
+    }
+}
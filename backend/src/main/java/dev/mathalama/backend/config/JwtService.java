@@ -13,11 +13,14 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    static final String ISSUED_AT_MILLIS = "iat_ms";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
@@ -42,15 +45,28 @@ public class JwtService {
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setId(UUID.randomUUID().toString()) // jti, нужен для отзыва токена (logout)
+                .setIssuedAt(new Date(now))
+                // iat хранится в секундах; для отзыва всех токенов пользователя нужна точность до миллисекунды
+                .claim(ISSUED_AT_MILLIS, now)
+                .setExpiration(new Date(now + expiration))
                 .signWith(getSignInKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // Время выдачи в миллисекундах; у токенов без iat_ms (выданных раньше) — конец секунды из iat
+    static Long issuedAtMillis(Claims claims) {
+        if (claims.get(ISSUED_AT_MILLIS) instanceof Number millis) {
+            return millis.longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() + 999 : null;
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
@@ -64,7 +80,7 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSignInKey())
                 .build()
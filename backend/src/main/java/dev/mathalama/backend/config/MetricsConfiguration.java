@@ -0,0 +1,40 @@
+package dev.mathalama.backend.config;
+
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfiguration {
+
+    // Обрабатывает @Timed на сервисах (метрика service.method, теги class/method/exception)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Латентность команд Redis (lettuce.command.completion) с гистограммой для перцентилей
+    @Bean
+    public MicrometerOptions micrometerOptions() {
+        return MicrometerOptions.builder().histogram(true).build();
+    }
+
+    // Все запросы к БД (JPA, JdbcTemplate, Flyway) проходят через StatementCountingDataSource
+    @Bean
+    public static BeanPostProcessor statementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package dev.mathalama.backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Число SQL-запросов и время JDBC на один HTTP-запрос, с тегом шаблона эндпоинта, и проверка бюджета
+// запросов (@StatementBudget). Стоит перед Spring Security, чтобы учитывать и загрузку пользователя
+// в JwtAuthenticationFilter.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class PersistenceMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+
+    @Value("${application.sql.statement-budget.default:12}")
+    private int defaultBudget;
+
+    // Один и тот же SQL столько раз за запрос — вероятный N+1
+    @Value("${application.sql.statement-budget.repeat-threshold:3}")
+    private int repeatThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RequestPersistenceStats stats = RequestPersistenceStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestPersistenceStats.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            stats.assignBudget(request.getMethod() + " " + uri,
+                    resolveBudget(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)));
+            request.setAttribute(RequestPersistenceStats.REQUEST_ATTRIBUTE, stats);
+
+            DistributionSummary.builder("hibernate.request.statements")
+                    .description("JDBC statements executed per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+            Timer.builder("hibernate.request.jdbc")
+                    .description("Time spent executing JDBC statements per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+            if (stats.isOverBudget()) {
+                meterRegistry.counter("hibernate.request.budget.exceeded", "method", request.getMethod(), "uri", uri).increment();
+                logOverBudget(stats);
+            }
+        }
+    }
+
+    private int resolveBudget(Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return defaultBudget;
+        }
+        return budgets.computeIfAbsent(handlerMethod.getMethod(), method -> {
+            StatementBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, StatementBudget.class);
+            if (budget == null) {
+                budget = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), StatementBudget.class);
+            }
+            return budget != null ? budget.value() : defaultBudget;
+        });
+    }
+
+    private void logOverBudget(RequestPersistenceStats stats) {
+        String shapes = stats.getShapes().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(e -> (e.getValue() >= repeatThreshold ? "  [possible N+1] " : "  ") + e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining("\n"));
+        log.warn("SQL statement budget exceeded for {}: {} statements (budget {})\n{}",
+                stats.getEndpoint(), stats.getStatements(), stats.getBudget(), shapes);
+    }
+}
@@ -0,0 +1,97 @@
+package dev.mathalama.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction manager asks for a
+ * connection before the read-only flag is bound to the thread, the lazy proxy defers that until
+ * the first statement. A replica is skipped while its replay lag exceeds {@code maxLag} or it is
+ * unreachable ({@link #checkReplicas()}); with no usable replica reads fall back to the primary,
+ * as do reads of a user inside their read-your-writes window.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    // 0, если реплика догнала primary (или это вообще не standby), иначе возраст последней применённой транзакции
+    private static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+
+    private final List<DataSource> replicas;
+    private final Duration maxLag;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<Integer> usable;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag,
+                                      ReadYourWritesTracker readYourWrites) {
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        this.readYourWrites = readYourWrites;
+        this.usable = List.of();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<Integer> candidates = usable;
+        if (candidates.isEmpty() || readYourWrites.isSticky()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    void checkReplicas() {
+        List<Integer> healthy = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                    rs.next();
+                    double lagSeconds = rs.getDouble(1);
+                    if (lagSeconds * 1000 <= maxLag.toMillis()) {
+                        healthy.add(i);
+                    } else {
+                        log.warn("Replica {} is {} s behind primary, routing its reads to primary", i, lagSeconds);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Replica {} is unavailable, routing its reads to primary: {}", i, e.getMessage());
+            }
+        }
+        usable = List.copyOf(healthy);
+    }
+
+    int usableReplicas() {
+        return usable.size();
+    }
+}
@@ -0,0 +1,46 @@
+package dev.mathalama.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Пользователь, который только что что-то записал, какое-то время читает с primary, чтобы не увидеть
+// реплику без своего отзыва. Состояние локально для инстанса: при нескольких инстансах нужен sticky routing.
+@Component
+public class ReadYourWritesTracker {
+
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final Duration stickyWindow;
+
+    public ReadYourWritesTracker(@Value("${application.datasource.replica.sticky-window:10s}") Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    public void markWrite(String email) {
+        stickyUntil.put(email, System.nanoTime() + stickyWindow.toNanos());
+    }
+
+    public boolean isSticky() {
+        if (stickyUntil.isEmpty()) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(authentication.getName());
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
@@ -0,0 +1,78 @@
+package dev.mathalama.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Включается, если задан application.datasource.replica.urls (DATABASE_REPLICA_URLS, через запятую).
+// Реплики используют тот же логин/пароль и те же настройки spring.datasource.hikari.*, что и primary.
+@Configuration
+@ConditionalOnExpression("!'${application.datasource.replica.urls:}'.isBlank()")
+public class ReplicaDataSourceConfiguration {
+
+    @Value("${application.datasource.replica.urls}")
+    private String replicaUrls;
+
+    @Value("${application.datasource.replica.max-lag:5s}")
+    private Duration maxLag;
+
+    private ReadWriteRoutingDataSource routing;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 MeterRegistry meterRegistry, ReadYourWritesTracker readYourWrites) {
+        HikariDataSource primary = pool("primary", properties.determineUrl(), properties, environment, meterRegistry);
+        List<DataSource> replicas = new ArrayList<>();
+        List<String> urls = Arrays.stream(replicaUrls.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(pool("replica-" + i, urls.get(i), properties, environment, meterRegistry));
+        }
+
+        routing = new ReadWriteRoutingDataSource(primary, replicas, maxLag, readYourWrites);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        Gauge.builder("datasource.replicas.usable", routing, ReadWriteRoutingDataSource::usableReplicas)
+                .description("Replicas currently receiving read-only transactions")
+                .register(meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Проверка отставания реплик
+    @Scheduled(fixedDelayString = "${application.datasource.replica.check-interval-ms:5000}", initialDelay = 5000)
+    public void checkReplicas() {
+        if (routing != null) {
+            routing.checkReplicas();
+        }
+    }
+
+    private static HikariDataSource pool(String name, String url, DataSourceProperties properties,
+                                         Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
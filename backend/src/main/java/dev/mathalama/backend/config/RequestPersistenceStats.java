@@ -0,0 +1,83 @@
+package dev.mathalama.backend.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// JDBC-счётчики текущего HTTP-запроса; заполняются StatementCountingDataSource,
+// живут в PersistenceMetricsFilter. После запроса доступны в атрибуте REQUEST_ATTRIBUTE (для тестов)
+public final class RequestPersistenceStats {
+
+    public static final String REQUEST_ATTRIBUTE = RequestPersistenceStats.class.getName();
+
+    private static final ThreadLocal<RequestPersistenceStats> CURRENT = new ThreadLocal<>();
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\?(\\s*,\\s*\\?)+\\)");
+
+    private int statements;
+    private long jdbcNanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private String endpoint;
+    private int budget;
+
+    private RequestPersistenceStats() {
+    }
+
+    static RequestPersistenceStats begin() {
+        RequestPersistenceStats stats = new RequestPersistenceStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestPersistenceStats current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+    }
+
+    void statementPrepared(String sql) {
+        shapes.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    void assignBudget(String endpoint, int budget) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+    }
+
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(shape).replaceAll("(?...)");
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    // Нормализованный SQL -> сколько раз он был подготовлен за запрос
+    public Map<String, Integer> getShapes() {
+        return shapes;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public boolean isOverBudget() {
+        return statements > budget;
+    }
+}
@@ -0,0 +1,99 @@
+package dev.mathalama.backend.config;
+
+import java.util.Locale;
+
+/**
+ * Per-request phase durations for the Server-Timing header (see ServerTimingFilter).
+ * While the feature is disabled every call is a single static field read.
+ * Usage: {@code long start = RequestTimings.start(); ...; RequestTimings.stop(Phase.HASH, start);}
+ */
+public final class RequestTimings {
+
+    public enum Phase {
+        AUTH("auth"),
+        DB("db"),
+        REDIS("redis"),
+        HASH("hash"),
+        SERIALIZE("serialize");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static volatile boolean enabled;
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long[] nanos = new long[Phase.values().length];
+
+    private RequestTimings() {
+    }
+
+    static void enable() {
+        enabled = true;
+    }
+
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Phase phase, long start) {
+        if (start != 0L) {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void record(Phase phase, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.nanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    // auth;dur=1.20, db;dur=3.45, ..., total;dur=12.00 (миллисекунды)
+    String toHeader(long totalNanos) {
+        StringBuilder sb = new StringBuilder(128);
+        for (Phase phase : Phase.values()) {
+            long value = nanos[phase.ordinal()];
+            if (value > 0) {
+                sb.append(phase.metric).append(";dur=").append(millis(value)).append(", ");
+            }
+        }
+        return sb.append("total;dur=").append(millis(totalNanos)).toString();
+    }
+
+    // auth_ms=1.20 db_ms=3.45 ... для структурированного лога
+    String toLogFields() {
+        StringBuilder sb = new StringBuilder(96);
+        for (Phase phase : Phase.values()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(phase.metric).append("_ms=").append(millis(nanos[phase.ordinal()]));
+        }
+        return sb.toString();
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -2,9 +2,11 @@ package dev.mathalama.backend.config;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -19,6 +21,7 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfiguration {
 
@@ -48,6 +51,10 @@ public class SecurityConfiguration {
                                         "/api/v1/auth/reset-password"
                                 )
                                 .permitAll()
+                                // Actuator обслуживается только на management.server.port, который наружу не публикуется:
+                                // Prometheus скрейпит его без JWT, на основном порту этих путей нет
+                                .requestMatchers(EndpointRequest.toAnyEndpoint())
+                                .permitAll()
                                 .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/v1/universities/**", "/api/v1/reviews/**")
                                 .permitAll()
                                 .anyRequest()
@@ -66,6 +73,7 @@ public class SecurityConfiguration {
         configuration.setAllowedOrigins(allowedOrigins);
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
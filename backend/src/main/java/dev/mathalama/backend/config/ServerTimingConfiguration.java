@@ -0,0 +1,60 @@
+package dev.mathalama.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+// Точки замера для Server-Timing, которые нужны только при включённом application.server-timing.enabled
+@Configuration
+@ConditionalOnProperty(name = "application.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfiguration {
+
+    // Фаза serialize: заменяет Jackson-конвертер Spring Boot (он создаётся только при отсутствии своего бина)
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(@NonNull Object object, Type type, @NonNull HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long start = RequestTimings.start();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    RequestTimings.stop(RequestTimings.Phase.SERIALIZE, start);
+                }
+            }
+        };
+    }
+
+    // Фаза redis: время вызовов Redis-репозиториев (все Spring Data репозитории, кроме JPA)
+    @Bean
+    public static BeanPostProcessor redisRepositoryTimingPostProcessor() {
+        RepositoryMethodInvocationListener listener = invocation -> {
+            if (!JpaRepository.class.isAssignableFrom(invocation.getRepositoryInterface())) {
+                RequestTimings.record(RequestTimings.Phase.REDIS, invocation.getDuration(TimeUnit.NANOSECONDS));
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package dev.mathalama.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Заголовок Server-Timing (auth, db, redis, hash, serialize, total) для каждого ответа API
+// и структурированный лог для самых медленных 1% запросов. Включается application.server-timing.enabled=true.
+// Тело ответа буферизуется, чтобы заголовок можно было выставить после сериализации.
+@Component
+@ConditionalOnProperty(name = "application.server-timing.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final int WINDOW = 1024;
+    private static final int RECOMPUTE_EVERY = 256;
+
+    private final AtomicLongArray recent = new AtomicLongArray(WINDOW);
+    private final AtomicLong requests = new AtomicLong();
+    private volatile long slowThresholdNanos = Long.MAX_VALUE;
+
+    public ServerTimingFilter() {
+        RequestTimings.enable();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return !request.getRequestURI().startsWith("/api/")
+                || (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            RequestTimings.end();
+            long total = System.nanoTime() - start;
+            if (!response.isCommitted()) {
+                response.setHeader("Server-Timing", timings.toHeader(total));
+            }
+            wrapper.copyBodyToResponse();
+            if (track(total)) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                log.info("slow_request method={} uri={} status={} total_ms={} {}",
+                        request.getMethod(), pattern != null ? pattern : request.getRequestURI(),
+                        response.getStatus(), RequestTimings.millis(total), timings.toLogFields());
+            }
+        }
+    }
+
+    // Скользящее окно последних WINDOW запросов, порог p99 пересчитывается каждые RECOMPUTE_EVERY запросов.
+    // Пишут все потоки запросов сразу, поэтому ячейки атомарные: копия видит последние записанные значения
+    private boolean track(long total) {
+        long n = requests.getAndIncrement();
+        recent.set((int) (n % WINDOW), total);
+        if (n >= WINDOW && n % RECOMPUTE_EVERY == 0) {
+            long[] copy = new long[WINDOW];
+            for (int i = 0; i < WINDOW; i++) {
+                copy[i] = recent.get(i);
+            }
+            Arrays.sort(copy);
+            slowThresholdNanos = copy[(int) (WINDOW * 0.99)];
+        }
+        return total >= slowThresholdNanos;
+    }
+}
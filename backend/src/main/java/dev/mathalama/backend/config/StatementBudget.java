@@ -0,0 +1,14 @@
+package dev.mathalama.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Максимум SQL-запросов на один вызов эндпоинта (включая загрузку пользователя по JWT).
+// Без аннотации действует application.sql.statement-budget.default
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
@@ -0,0 +1,122 @@
+package dev.mathalama.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Считает SQL-запросы на уровне JDBC, а не Hibernate: сюда попадают и JdbcTemplate, и нативные запросы.
+// Оборачивает DataSource-бин (см. MetricsConfiguration), заполняет RequestPersistenceStats и фазу DB
+// в RequestTimings. Вне HTTP-запроса только читает ThreadLocal.
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private static Connection connection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(target));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static void prepared(String sql) {
+        RequestPersistenceStats stats = RequestPersistenceStats.current();
+        if (stats != null) {
+            stats.statementPrepared(sql);
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement", "prepareCall":
+                    prepared((String) args[0]);
+                    return statement(StatementCountingDataSource.invoke(target, method, args), proxy, false);
+                case "createStatement":
+                    return statement(StatementCountingDataSource.invoke(target, method, args), proxy, true);
+                default:
+                    return StatementCountingDataSource.invoke(target, method, args);
+            }
+        }
+
+        private static Object statement(Object statement, Object connection, boolean plain) {
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler((Statement) statement, connection, plain));
+        }
+    }
+
+    private record StatementHandler(Statement target, Object connection, boolean plain) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return connection;
+                case "addBatch":
+                    // Для обычного Statement SQL приходит только здесь
+                    if (plain && args != null) {
+                        prepared((String) args[0]);
+                    }
+                    return StatementCountingDataSource.invoke(target, method, args);
+                default:
+                    if (!name.startsWith("execute")) {
+                        return StatementCountingDataSource.invoke(target, method, args);
+                    }
+            }
+            if (plain && args != null && args.length > 0 && args[0] instanceof String sql) {
+                prepared(sql);
+            }
+            long start = System.nanoTime();
+            try {
+                return StatementCountingDataSource.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                RequestTimings.record(RequestTimings.Phase.DB, elapsed);
+                RequestPersistenceStats stats = RequestPersistenceStats.current();
+                if (stats != null) {
+                    stats.statementExecuted(elapsed);
+                }
+            }
+        }
+    }
+}
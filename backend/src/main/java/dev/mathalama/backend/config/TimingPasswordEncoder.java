@@ -0,0 +1,38 @@
+package dev.mathalama.backend.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Фаза hash для Server-Timing: BCrypt — самая дорогая часть логина и регистрации
+public class TimingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public TimingPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = RequestTimings.start();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            RequestTimings.stop(RequestTimings.Phase.HASH, start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = RequestTimings.start();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            RequestTimings.stop(RequestTimings.Phase.HASH, start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,239 @@
+package dev.mathalama.backend.config;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked JWTs: single tokens by jti (logout) and all tokens of a user issued up to a moment
+ * (password reset, admin revoke).
+ * <p>
+ * Redis is the source of truth ({@code revoked:jti:*} and {@code revoked:user:*}, expiring together
+ * with the last token they can affect). Every node mirrors the keys into a Bloom filter, kept in
+ * sync over the {@code token-revocations} channel and rebuilt from Redis periodically to drop
+ * expired keys. A token that misses the filter, the common case, is accepted without a Redis call;
+ * only filter hits are confirmed in Redis. If Redis cannot confirm, the token is treated as revoked.
+ * Until the filter has been built from Redis once, it proves nothing: every token is checked in
+ * Redis, and the build is retried on a short interval.
+ * <p>
+ * Redis calls go through a circuit breaker. A revocation that cannot be written is kept locally,
+ * enforced on this node straight away and written to Redis with its remaining TTL once Redis answers;
+ * other nodes only see it after that.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    static final ChannelTopic CHANNEL = new ChannelTopic("token-revocations");
+    private static final String JTI_PREFIX = "revoked:jti:";
+    private static final String USER_PREFIX = "revoked:user:";
+    // Секунды эпохи меньше этого до 5138 года, миллисекунды больше с 1973-го
+    private static final long SECONDS_BEFORE_MILLIS = 100_000_000_000L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.security.jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${application.security.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${application.redis.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${application.redis.circuit.open-duration:10s}")
+    private Duration openDuration;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    // false, пока фильтр ни разу не собран из Redis: до этого промах по фильтру ничего не значит
+    private volatile boolean filterBuilt;
+    private CircuitBreaker breaker;
+    // Ключ -> значение отзыва, не записанного в Redis
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    private record Pending(String value, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    void init() {
+        filter = new BloomFilter(expectedEntries, 0.01);
+        breaker = new CircuitBreaker("revocation-redis", failureThreshold, openDuration);
+        listenerContainer.addMessageListener(
+                (message, pattern) -> mirror(new String(message.getBody(), StandardCharsets.UTF_8)), CHANNEL);
+        meterRegistry.gauge("redis.circuit.state", io.micrometer.core.instrument.Tags.of("name", "revocation-redis"),
+                breaker, b -> b.getState().ordinal());
+        meterRegistry.gauge("auth.revocation.pending", pending, Map::size);
+    }
+
+    public void revokeToken(Claims claims) {
+        long ttl = claims.getExpiration().getTime() - System.currentTimeMillis();
+        if (claims.getId() == null || ttl <= 0) {
+            return;
+        }
+        revoke(JTI_PREFIX + claims.getId(), "1", Duration.ofMillis(ttl));
+    }
+
+    // Все токены пользователя, выданные до текущей миллисекунды включительно: токен, полученный сразу
+    // после сброса пароля, уже не попадает под отзыв
+    public void revokeAll(String email) {
+        long issuedUpTo = System.currentTimeMillis();
+        revoke(USER_PREFIX + email, Long.toString(issuedUpTo), Duration.ofMillis(jwtExpiration));
+    }
+
+    public boolean isRevoked(Claims claims) {
+        BloomFilter current = filter;
+        boolean built = filterBuilt;
+        String jtiKey = claims.getId() != null ? JTI_PREFIX + claims.getId() : null;
+        String userKey = USER_PREFIX + claims.getSubject();
+        boolean jtiHit = jtiKey != null && (!built || current.mightContain(jtiKey));
+        boolean userHit = !built || current.mightContain(userKey);
+        if (!jtiHit && !userHit) {
+            return false;
+        }
+        meterRegistry.counter(built ? "auth.revocation.filter.hits" : "auth.revocation.unfiltered.checks").increment();
+        Long issuedAt = JwtService.issuedAtMillis(claims);
+        if (jtiHit && pendingValue(jtiKey) != null) {
+            return true;
+        }
+        String localCutoff = userHit ? pendingValue(userKey) : null;
+        if (localCutoff != null && (issuedAt == null || issuedAt <= cutoffMillis(localCutoff))) {
+            return true;
+        }
+        try {
+            return breaker.call(() -> {
+                if (jtiHit && Boolean.TRUE.equals(redisTemplate.hasKey(jtiKey))) {
+                    return true;
+                }
+                if (userHit) {
+                    String issuedUpTo = redisTemplate.opsForValue().get(userKey);
+                    return issuedUpTo != null && (issuedAt == null || issuedAt <= cutoffMillis(issuedUpTo));
+                }
+                return false;
+            }, () -> {
+                log.warn("Cannot confirm token revocation in Redis, rejecting token");
+                return true;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cannot confirm token revocation in Redis, rejecting token: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // Дописывает в Redis отзывы, сделанные, пока он был недоступен
+    @Scheduled(fixedDelayString = "${application.redis.fallback.reconcile-interval-ms:5000}")
+    public void replayPending() {
+        int replayed = 0;
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            String key = entry.getKey();
+            Pending revocation = entry.getValue();
+            long ttl = revocation.expiresAtMillis() - System.currentTimeMillis();
+            if (ttl <= 0) {
+                pending.remove(key, revocation);
+                continue;
+            }
+            boolean written = breaker.call(() -> {
+                write(key, revocation.value(), Duration.ofMillis(ttl));
+                return true;
+            }, () -> false);
+            if (!written) {
+                break;
+            }
+            pending.remove(key, revocation);
+            replayed++;
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} locally stored token revocations to Redis", replayed);
+        }
+    }
+
+    // Ключи, записанные до перехода на миллисекунды, хранят секунды: отзыв до конца той секунды
+    static long cutoffMillis(String issuedUpTo) {
+        long value = Long.parseLong(issuedUpTo);
+        return value < SECONDS_BEFORE_MILLIS ? value * 1000 + 999 : value;
+    }
+
+    // Фильтр не умеет удалять: периодически собираем заново из ключей, которые ещё не истекли
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.security.revocation.rebuild-interval-ms:3600000}", initialDelay = 3600000)
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedEntries, 0.01);
+        rebuilding = next;
+        int keys = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match("revoked:*").count(1000).build())) {
+            while (cursor.hasNext()) {
+                next.put(cursor.next());
+                keys++;
+            }
+            pending.keySet().forEach(next::put);
+            filter = next;
+            filterBuilt = true;
+            log.info("Token revocation filter rebuilt with {} keys", keys);
+        } catch (Exception e) {
+            log.warn("Token revocation filter rebuild failed, keeping the current one: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    // Первая сборка не удалась (Redis недоступен при старте): повторяем часто, а не раз в час
+    @Scheduled(fixedDelayString = "${application.security.revocation.initial-build-retry-ms:5000}", initialDelay = 5000)
+    public void retryInitialBuild() {
+        if (!filterBuilt) {
+            rebuild();
+        }
+    }
+
+    private void revoke(String key, String value, Duration ttl) {
+        mirror(key);
+        breaker.run(() -> write(key, value, ttl), () -> {
+            log.warn("Redis unavailable, token revocation {} enforced on this node until it is replayed", key);
+            pending.put(key, new Pending(value, System.currentTimeMillis() + ttl.toMillis()));
+        });
+    }
+
+    private void write(String key, String value, Duration ttl) {
+        if (key.startsWith(USER_PREFIX)) {
+            // Другой узел мог за это время отозвать токены пользователя позже — не сдвигаем границу назад
+            String current = redisTemplate.opsForValue().get(key);
+            if (current != null && cutoffMillis(current) >= cutoffMillis(value)) {
+                return;
+            }
+        }
+        redisTemplate.opsForValue().set(key, value, ttl);
+        redisTemplate.convertAndSend(CHANNEL.getTopic(), key);
+    }
+
+    private String pendingValue(String key) {
+        Pending revocation = pending.get(key);
+        return revocation != null && revocation.expiresAtMillis() > System.currentTimeMillis() ? revocation.value() : null;
+    }
+
+    private void mirror(String key) {
+        filter.put(key);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+}
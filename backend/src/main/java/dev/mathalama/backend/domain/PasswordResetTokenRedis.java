@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.redis.core.RedisHash;
+import org.springframework.data.redis.core.TimeToLive;
 import org.springframework.data.redis.core.index.Indexed;
 
 @Data
@@ -19,4 +20,8 @@ public class PasswordResetTokenRedis {
     
     @Indexed
     private String email;
+
+    // Остаток TTL при переносе из локального хранилища; null = значение из @RedisHash
+    @TimeToLive
+    private Long timeToLive;
 }
@@ -0,0 +1,27 @@
+package dev.mathalama.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Позиция (последний применённый seq журнала review_event) проекции, хранящей состояние в БД
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "projection_checkpoint")
+public class ProjectionCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private long position;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,39 @@
+package dev.mathalama.backend.domain;
+
+import java.util.function.ToIntFunction;
+
+// Оценки отзыва (1-5), порядок констант задаёт раскладку счётчиков в агрегатах
+public enum ReviewDimension {
+    RATING("rating", Review::getRating),
+    FACILITIES("facilities", Review::getFacilities),
+    OPPORTUNITIES("opportunities", Review::getOpportunities),
+    LOCATION("location", Review::getLocation),
+    INTERNET("internet", Review::getInternet),
+    FOOD("food", Review::getFood),
+    DIFFICULTY("difficulty", Review::getDifficulty);
+
+    public static final int MIN_SCORE = 1;
+    public static final int MAX_SCORE = 5;
+    public static final int BUCKETS = MAX_SCORE - MIN_SCORE + 1;
+
+    private final String column;
+    private final ToIntFunction<Review> accessor;
+
+    ReviewDimension(String column, ToIntFunction<Review> accessor) {
+        this.column = column;
+        this.accessor = accessor;
+    }
+
+    // Совпадает с именем поля Review и колонкой в таблице review
+    public String column() {
+        return column;
+    }
+
+    public int scoreOf(Review review) {
+        return accessor.applyAsInt(review);
+    }
+
+    public static boolean isValidScore(int score) {
+        return score >= MIN_SCORE && score <= MAX_SCORE;
+    }
+}
@@ -0,0 +1,62 @@
+package dev.mathalama.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Запись журнала событий отзывов (append-only). Снимок отзыва хранится целиком и без внешних ключей:
+// журнал переживает удаление отзыва, пользователя и университета
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "review_event")
+public class ReviewEvent {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+
+    // Монотонный номер; порядок seq совпадает с порядком коммитов (см. ReviewEventLog)
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false)
+    private Long reviewId;
+
+    private Long universityId;
+    private Long userId;
+
+    private int rating;
+    private int facilities;
+    private int opportunities;
+    private int location;
+    private int internet;
+    private int food;
+    private int difficulty;
+
+    private String status;
+
+    @Column(columnDefinition = "TEXT")
+    private String tags;
+
+    // Только у CREATED
+    @Column(columnDefinition = "TEXT")
+    private String text;
+
+    private LocalDateTime reviewCreatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,39 @@
+package dev.mathalama.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "university_rating_stats")
+public class UniversityRatingStats {
+
+    // Гистограмма на измерение: counts[dimension.ordinal() * 5 + (score - 1)]
+    public static final int SIZE = ReviewDimension.values().length * ReviewDimension.BUCKETS;
+
+    @Id
+    @Column(name = "university_id")
+    private Long universityId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "university_id")
+    @org.hibernate.annotations.OnDelete(action = org.hibernate.annotations.OnDeleteAction.CASCADE)
+    private University university;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private int[] counts;
+
+    public static int slot(ReviewDimension dimension, int score) {
+        return dimension.ordinal() * ReviewDimension.BUCKETS + (score - ReviewDimension.MIN_SCORE);
+    }
+}
@@ -0,0 +1,46 @@
+package dev.mathalama.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "university_rating_trend")
+public class UniversityRatingTrend {
+
+    @EmbeddedId
+    private Key id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("universityId")
+    @JoinColumn(name = "university_id")
+    @org.hibernate.annotations.OnDelete(action = org.hibernate.annotations.OnDeleteAction.CASCADE)
+    private University university;
+
+    private int reviewCount;
+
+    // Сумма оценок за месяц по каждому ReviewDimension (индекс = ordinal)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private long[] sums;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+        private Long universityId;
+        private LocalDate periodStart; // первое число месяца
+    }
+}
@@ -0,0 +1,33 @@
+package dev.mathalama.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Число упоминаний тега в отзывах университета; строится только из журнала review_event, поэтому без FK
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "university_tag_stats")
+public class UniversityTagStats {
+
+    @EmbeddedId
+    private Key id;
+
+    private int reviewCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+        private Long universityId;
+        private String tag;
+    }
+}
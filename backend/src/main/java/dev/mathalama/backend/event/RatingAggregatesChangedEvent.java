@@ -0,0 +1,7 @@
+package dev.mathalama.backend.event;
+
+import java.util.Set;
+
+// Публикуется после записи агрегатов оценок (сброс дельт RatingAggregator, пересчёт UniversityAggregateService)
+public record RatingAggregatesChangedEvent(Set<Long> universityIds) {
+}
@@ -0,0 +1,28 @@
+package dev.mathalama.backend.event;
+
+import dev.mathalama.backend.web.dto.ReviewResponse;
+
+import java.util.List;
+
+// Публикуется при добавлении/удалении отзывов; в ленту (SSE) уходит только после коммита.
+// Массовое удаление даёт одно событие BULK_DELETED на университет со списком id в reviewIds
+public record ReviewFeedEvent(Type type, Long universityId, Long reviewId, List<Long> reviewIds, ReviewResponse review) {
+
+    public enum Type {
+        CREATED,
+        DELETED,
+        BULK_DELETED
+    }
+
+    public static ReviewFeedEvent created(ReviewResponse review) {
+        return new ReviewFeedEvent(Type.CREATED, review.getUniversityId(), review.getId(), null, review);
+    }
+
+    public static ReviewFeedEvent deleted(Long universityId, Long reviewId) {
+        return new ReviewFeedEvent(Type.DELETED, universityId, reviewId, null, null);
+    }
+
+    public static ReviewFeedEvent bulkDeleted(Long universityId, List<Long> reviewIds) {
+        return new ReviewFeedEvent(Type.BULK_DELETED, universityId, null, List.copyOf(reviewIds), null);
+    }
+}
@@ -0,0 +1,18 @@
+package dev.mathalama.backend.event;
+
+// Публикуется UniversityService после сохранения/удаления; слушатели получают его после коммита
+public record UniversityChangedEvent(Type type, Long universityId, String name, String city, String country) {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    public static UniversityChangedEvent saved(Long universityId, String name, String city, String country) {
+        return new UniversityChangedEvent(Type.SAVED, universityId, name, city, country);
+    }
+
+    public static UniversityChangedEvent deleted(Long universityId) {
+        return new UniversityChangedEvent(Type.DELETED, universityId, null, null, null);
+    }
+}
@@ -0,0 +1,253 @@
+package dev.mathalama.backend.eventlog;
+
+import dev.mathalama.backend.domain.ReviewEvent;
+import dev.mathalama.backend.web.dto.ProjectionStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps every {@link ReviewProjection} caught up with the review event log and rebuilds one from
+ * scratch on demand. Events are read in keyset batches ({@code seq > position}); while a batch is being
+ * applied the next one is already being fetched on a reader thread, so a rebuild is bounded by the
+ * slower of the two rather than by their sum.
+ * <p>
+ * Durable projections apply a batch and move their checkpoint in one transaction, after locking the
+ * checkpoint row and checking it still holds the expected position. If another node got there first
+ * the batch is dropped and this node continues from the stored position, so every event is applied
+ * exactly once cluster-wide. In-memory projections keep their position in memory and replay the whole
+ * log after a restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectionRunner {
+
+    private final List<ReviewProjection> projections;
+    private final ReviewEventLog eventLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.review-events.batch-size:5000}")
+    private int batchSize;
+
+    private final Map<String, AtomicLong> positions = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final AtomicLong lastSeq = new AtomicLong();
+    private Map<String, ReviewProjection> byName;
+    private ExecutorService reader;
+
+    @PostConstruct
+    void init() {
+        byName = projections.stream().collect(Collectors.toMap(ReviewProjection::name, Function.identity()));
+        reader = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "review-event-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (ReviewProjection projection : projections) {
+            AtomicLong position = new AtomicLong(-1);
+            positions.put(projection.name(), position);
+            locks.put(projection.name(), new ReentrantLock());
+            Gauge.builder("review.events.projection.lag", position, p -> p.get() < 0 ? Double.NaN : lastSeq.get() - p.get())
+                    .description("Events in the review log not yet applied by the projection")
+                    .tag("projection", projection.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        reader.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${application.review-events.poll-interval-ms:1000}", initialDelay = 10000)
+    public void catchUp() {
+        lastSeq.set(eventLog.lastSeq());
+        for (ReviewProjection projection : projections) {
+            ReentrantLock lock = locks.get(projection.name());
+            // Идёт перестройка — она сама дойдёт до конца журнала
+            if (!lock.tryLock()) {
+                continue;
+            }
+            try {
+                replay(projection, position(projection));
+            } catch (RuntimeException e) {
+                log.warn("Projection {} failed to catch up, will retry: {}", projection.name(), e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Async
+    public void rebuildAsync(String name) {
+        rebuild(name);
+    }
+
+    public void rebuild(String name) {
+        ReviewProjection projection = require(name);
+        ReentrantLock lock = locks.get(name);
+        lock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            if (projection.durable()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    projection.reset();
+                    saveCheckpoint(name, 0);
+                });
+            } else {
+                projection.reset();
+            }
+            positions.get(name).set(0);
+            long applied = replay(projection, 0);
+            log.info("Projection {} rebuilt from {} events in {} ms", name, applied, System.currentTimeMillis() - start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isBusy(String name) {
+        require(name);
+        return locks.get(name).isLocked();
+    }
+
+    public List<ProjectionStatus> status() {
+        long last = eventLog.lastSeq();
+        lastSeq.set(last);
+        return projections.stream()
+                .map(projection -> {
+                    long position = positions.get(projection.name()).get();
+                    return ProjectionStatus.builder()
+                            .name(projection.name())
+                            .durable(projection.durable())
+                            .position(Math.max(position, 0))
+                            .lastSeq(last)
+                            .lag(position < 0 ? null : last - position)
+                            .busy(locks.get(projection.name()).isLocked())
+                            .build();
+                })
+                .toList();
+    }
+
+    // Возвращает число применённых событий
+    private long replay(ReviewProjection projection, long from) {
+        long position = from;
+        long applied = 0;
+        CompletableFuture<List<ReviewEvent>> next = fetch(position);
+        while (next != null) {
+            List<ReviewEvent> batch = next.join();
+            if (batch.isEmpty()) {
+                break;
+            }
+            long last = batch.get(batch.size() - 1).getSeq();
+            // Следующая порция читается, пока применяется текущая
+            next = batch.size() < batchSize ? null : fetch(last);
+            boolean ours;
+            try {
+                ours = apply(projection, batch, position, last);
+            } catch (RuntimeException e) {
+                cancel(next);
+                throw e;
+            }
+            if (!ours) {
+                // Другой узел продвинул позицию раньше нас
+                cancel(next);
+                return applied;
+            }
+            position = last;
+            applied += batch.size();
+            meterRegistry.counter("review.events.applied", "projection", projection.name()).increment(batch.size());
+        }
+        return applied;
+    }
+
+    private boolean apply(ReviewProjection projection, List<ReviewEvent> batch, long expected, long last) {
+        AtomicLong position = positions.get(projection.name());
+        if (!projection.durable()) {
+            projection.apply(batch);
+            position.set(last);
+            return true;
+        }
+        Boolean applied = transactionTemplate.execute(status -> {
+            long stored = lockCheckpoint(projection.name());
+            if (stored != expected) {
+                position.set(stored);
+                return false;
+            }
+            projection.apply(batch);
+            saveCheckpoint(projection.name(), last);
+            return true;
+        });
+        if (Boolean.TRUE.equals(applied)) {
+            position.set(last);
+            return true;
+        }
+        return false;
+    }
+
+    private long position(ReviewProjection projection) {
+        AtomicLong position = positions.get(projection.name());
+        if (projection.durable()) {
+            Long stored = jdbcTemplate.query("SELECT position FROM projection_checkpoint WHERE name = ?",
+                    rs -> rs.next() ? rs.getLong(1) : 0L, projection.name());
+            position.set(stored != null ? stored : 0);
+        } else if (position.get() < 0) {
+            position.set(0);
+        }
+        return position.get();
+    }
+
+    private long lockCheckpoint(String name) {
+        jdbcTemplate.update("INSERT INTO projection_checkpoint (name, position, updated_at) VALUES (?, 0, localtimestamp) "
+                + "ON CONFLICT (name) DO NOTHING", name);
+        Long stored = jdbcTemplate.queryForObject("SELECT position FROM projection_checkpoint WHERE name = ? FOR UPDATE",
+                Long.class, name);
+        return stored != null ? stored : 0;
+    }
+
+    private void saveCheckpoint(String name, long position) {
+        jdbcTemplate.update("INSERT INTO projection_checkpoint (name, position, updated_at) VALUES (?, ?, localtimestamp) "
+                + "ON CONFLICT (name) DO UPDATE SET position = EXCLUDED.position, updated_at = EXCLUDED.updated_at",
+                name, position);
+    }
+
+    private CompletableFuture<List<ReviewEvent>> fetch(long after) {
+        return CompletableFuture.supplyAsync(() -> eventLog.read(after, batchSize), reader);
+    }
+
+    private static void cancel(CompletableFuture<?> future) {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    private ReviewProjection require(String name) {
+        ReviewProjection projection = byName.get(name);
+        if (projection == null) {
+            throw new RuntimeException("Unknown projection: " + name);
+        }
+        return projection;
+    }
+}
@@ -0,0 +1,301 @@
+package dev.mathalama.backend.eventlog;
+
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.ReviewEvent;
+import dev.mathalama.backend.service.SqlArrays;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Append-only log of review changes (table {@code review_event}). Events of a transaction are buffered
+ * and written in {@code beforeCommit}, after the persistence context is flushed: the transaction takes
+ * a transaction-scoped advisory lock and inserts its events as its very last statements, so sequence
+ * numbers become visible strictly in order. A reader that has seen {@code seq = n} will never later see
+ * a smaller one, which is what lets projections keep a single number as their checkpoint. Nothing else
+ * runs while the lock is held, so review writes only serialize on the event insert and commit. Since
+ * no row lock is taken after the advisory lock, no deadlock can form with FK locks on
+ * university or user rows.
+ * <p>
+ * Events carry a full snapshot of the review (text only on CREATED), so a read model can be rebuilt
+ * from the log alone. Reviews without a CREATED event are appended by {@link #backfill} (at startup and
+ * periodically). These are reviews that predate the log, or were written by a node without it during
+ * a rolling deploy. A DELETED event is only logged for a review that is already in the log.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewEventLog {
+
+    // Удалённый отзыв: id и университет (null, если университет уже удалён)
+    public record Deleted(Long reviewId, Long universityId) {
+
+        // id удалённых отзывов по университетам в порядке id университета; отзывы без университета пропускаются
+        public static SortedMap<Long, List<Long>> byUniversity(List<Deleted> deleted) {
+            SortedMap<Long, List<Long>> result = new TreeMap<>();
+            for (Deleted review : deleted) {
+                if (review.universityId() != null) {
+                    result.computeIfAbsent(review.universityId(), k -> new ArrayList<>()).add(review.reviewId());
+                }
+            }
+            return result;
+        }
+    }
+
+    // Событие, ожидающее коммита транзакции: значения в порядке COLUMNS без recorded_at.
+    // values == null — DELETED-события пачки batch, сложенные в STAGING_TABLE
+    private record Pending(ReviewEvent.Type type, Long reviewId, Object[] values, int batch) {
+
+        static Pending staged(int batch) {
+            return new Pending(ReviewEvent.Type.DELETED, null, null, batch);
+        }
+    }
+
+    private static final long APPEND_LOCK = 0x5245564945574C47L;
+
+    private static final String COLUMNS = "type, review_id, university_id, user_id, rating, facilities, opportunities, "
+            + "location, internet, food, difficulty, status, tags, text, review_created_at, recorded_at";
+
+    private static final String SNAPSHOT_COLUMNS = "id, university_id, user_id, rating, facilities, opportunities, "
+            + "location, internet, food, difficulty, status, tags, created_at";
+
+    // Типы явно: в SELECT без VALUES Postgres не выводит типы параметров из колонок
+    private static final String INSERT_SQL = "INSERT INTO review_event (" + COLUMNS + ") "
+            + "SELECT CAST(? AS varchar), CAST(? AS bigint), CAST(? AS bigint), CAST(? AS bigint), "
+            + "CAST(? AS integer), CAST(? AS integer), CAST(? AS integer), CAST(? AS integer), CAST(? AS integer), "
+            + "CAST(? AS integer), CAST(? AS integer), CAST(? AS varchar), CAST(? AS text), CAST(? AS text), "
+            + "CAST(? AS timestamp), localtimestamp "
+            + "WHERE CAST(? AS varchar) = 'CREATED' OR EXISTS (SELECT 1 FROM review_event WHERE review_id = CAST(? AS bigint))";
+
+    // Строки удалённых отзывов до коммита; живёт до конца транзакции
+    private static final String STAGING_TABLE = "review_event_staging";
+
+    // Отзывы моложе этого могут быть ещё не закоммичены: watermark дозаписи их не перепрыгивает
+    private static final String BACKFILL_SAFETY_INTERVAL = "1 hour";
+
+    private static final RowMapper<ReviewEvent> EVENT = (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("review_created_at");
+        return ReviewEvent.builder()
+                .seq(rs.getLong("seq"))
+                .type(ReviewEvent.Type.valueOf(rs.getString("type")))
+                .reviewId(rs.getLong("review_id"))
+                .universityId(rs.getObject("university_id", Long.class))
+                .userId(rs.getObject("user_id", Long.class))
+                .rating(rs.getInt("rating"))
+                .facilities(rs.getInt("facilities"))
+                .opportunities(rs.getInt("opportunities"))
+                .location(rs.getInt("location"))
+                .internet(rs.getInt("internet"))
+                .food(rs.getInt("food"))
+                .difficulty(rs.getInt("difficulty"))
+                .status(rs.getString("status"))
+                .tags(rs.getString("tags"))
+                .text(rs.getString("text"))
+                .reviewCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .recordedAt(rs.getTimestamp("recorded_at").toLocalDateTime())
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${application.review-events.batch-size:5000}")
+    private int batchSize;
+
+    // Отзывы с id не выше уже проверены дозаписью
+    private volatile long backfillWatermark;
+
+    // Событие пишется при коммите текущей транзакции, последним запросом
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(ReviewEvent.Type type, Review review) {
+        pending().add(new Pending(type, review.getId(), new Object[]{
+                type.name(),
+                review.getId(),
+                review.getUniversity() != null ? review.getUniversity().getId() : null,
+                review.getUser() != null ? review.getUser().getId() : null,
+                review.getRating(),
+                review.getFacilities(),
+                review.getOpportunities(),
+                review.getLocation(),
+                review.getInternet(),
+                review.getFood(),
+                review.getDifficulty(),
+                review.getStatus(),
+                review.getTags(),
+                type == ReviewEvent.Type.CREATED ? review.getText() : null,
+                review.getCreatedAt() != null ? Timestamp.valueOf(review.getCreatedAt()) : null}, 0));
+    }
+
+    /**
+     * Deletes the reviews matching {@code condition} (columns of {@code review}) and logs a DELETED
+     * event for each of them when the transaction commits. Returns the id and university id of every
+     * deleted review, like {@code DELETE ... RETURNING}. The deleted rows are staged in a temporary
+     * table by the same statement, so at commit their events take one set-based insert under the lock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Deleted> deleteReviews(String condition, Object... args) {
+        List<Pending> events = pending();
+        int batch = (int) events.stream().filter(event -> event.values() == null).count();
+        jdbcTemplate.execute("CREATE TEMP TABLE IF NOT EXISTS " + STAGING_TABLE + " ON COMMIT DROP AS "
+                + "SELECT 0 AS batch, " + SNAPSHOT_COLUMNS + " FROM review WITH NO DATA");
+
+        Object[] params = Arrays.copyOf(args, args.length + 1);
+        params[args.length] = batch;
+        List<Deleted> deleted = jdbcTemplate.query("WITH deleted AS (DELETE FROM review WHERE " + condition
+                        + " RETURNING " + SNAPSHOT_COLUMNS + ") "
+                        + "INSERT INTO " + STAGING_TABLE + " (batch, " + SNAPSHOT_COLUMNS + ") "
+                        + "SELECT CAST(? AS integer), " + SNAPSHOT_COLUMNS + " FROM deleted "
+                        + "RETURNING id, university_id",
+                (rs, rowNum) -> new Deleted(rs.getLong("id"), rs.getObject("university_id", Long.class)), params);
+        if (!deleted.isEmpty()) {
+            events.add(Pending.staged(batch));
+        }
+        return deleted;
+    }
+
+    // События с seq > after по возрастанию seq
+    public List<ReviewEvent> read(long after, int limit) {
+        return jdbcTemplate.query("SELECT seq, " + COLUMNS + " FROM review_event WHERE seq > ? ORDER BY seq LIMIT ?",
+                EVENT, after, limit);
+    }
+
+    public long lastSeq() {
+        Long last = jdbcTemplate.queryForObject("SELECT coalesce(max(seq), 0) FROM review_event", Long.class);
+        return last != null ? last : 0;
+    }
+
+    /**
+     * Appends a CREATED event for every review that has none. Candidates are found without the lock,
+     * in keyset pages above the watermark. Each page is then inserted under the lock with the check
+     * repeated, so a review that got its event (or was deleted) in the meantime is skipped. The
+     * watermark moves only past reviews older than {@value #BACKFILL_SAFETY_INTERVAL}, so a review
+     * still uncommitted during the scan is picked up by a later run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.review-events.backfill-interval-ms:600000}", initialDelay = 600000)
+    public synchronized void backfill() {
+        long from = backfillWatermark;
+        Long settled = jdbcTemplate.queryForObject(
+                "SELECT max(id) FROM review WHERE created_at < localtimestamp - CAST(? AS interval)",
+                Long.class, BACKFILL_SAFETY_INTERVAL);
+        int appended = 0;
+        long after = from;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList("""
+                    SELECT r.id FROM review r
+                    WHERE r.id > ? AND NOT EXISTS (SELECT 1 FROM review_event e WHERE e.review_id = r.id)
+                    ORDER BY r.id
+                    LIMIT ?
+                    """, Long.class, after, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            String literal = SqlArrays.literal(ids.stream().mapToLong(Long::longValue).toArray());
+            Integer inserted = transactionTemplate.execute(status -> {
+                lock();
+                return jdbcTemplate.update("INSERT INTO review_event (" + COLUMNS + ") "
+                        + snapshotSelectSql(ReviewEvent.Type.CREATED, "review r")
+                        + " WHERE r.id = ANY(CAST(? AS bigint[])) "
+                        + "AND NOT EXISTS (SELECT 1 FROM review_event e WHERE e.review_id = r.id) ORDER BY r.id", literal);
+            });
+            appended += inserted != null ? inserted : 0;
+            after = ids.get(ids.size() - 1);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        if (settled != null && settled > from) {
+            backfillWatermark = settled;
+        }
+        if (appended > 0) {
+            log.info("Review event log backfilled with {} reviews that had no CREATED event", appended);
+        }
+    }
+
+    // Буфер событий текущей транзакции; при первом обращении регистрирует запись перед коммитом
+    @SuppressWarnings("unchecked")
+    private List<Pending> pending() {
+        List<Pending> events = (List<Pending>) TransactionSynchronizationManager.getResource(this);
+        if (events != null) {
+            return events;
+        }
+        List<Pending> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReviewEventLog.this);
+            }
+        });
+        return created;
+    }
+
+    // Все изменения строк — до блокировки журнала; после неё только вставка событий и коммит.
+    // Порядок событий транзакции сохраняется: одиночные идут пакетом, staged-пачки — одним INSERT ... SELECT
+    private void write(List<Pending> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        lock();
+        List<Object[]> rows = new ArrayList<>();
+        for (Pending event : events) {
+            if (event.values() == null) {
+                insertRows(rows);
+                jdbcTemplate.update("INSERT INTO review_event (" + COLUMNS + ") "
+                        + snapshotSelectSql(ReviewEvent.Type.DELETED, STAGING_TABLE + " s")
+                        + " WHERE s.batch = ? AND EXISTS (SELECT 1 FROM review_event e WHERE e.review_id = s.id) ORDER BY s.id",
+                        event.batch());
+                continue;
+            }
+            Object[] row = Arrays.copyOf(event.values(), event.values().length + 2);
+            row[row.length - 2] = event.type().name();
+            row[row.length - 1] = event.reviewId();
+            rows.add(row);
+        }
+        insertRows(rows);
+    }
+
+    private void insertRows(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            rows.clear();
+        }
+    }
+
+    private void lock() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", APPEND_LOCK);
+    }
+
+    // SELECT в порядке COLUMNS из строк таблицы review
+    private static String snapshotSelectSql(ReviewEvent.Type type, String source) {
+        String text = type == ReviewEvent.Type.CREATED ? "text" : "NULL";
+        return "SELECT '" + type.name() + "', id, university_id, user_id, rating, facilities, opportunities, "
+                + "location, internet, food, difficulty, status, tags, " + text + ", created_at, localtimestamp FROM " + source;
+    }
+}
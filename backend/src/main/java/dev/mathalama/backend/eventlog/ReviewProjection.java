@@ -0,0 +1,24 @@
+package dev.mathalama.backend.eventlog;
+
+import dev.mathalama.backend.domain.ReviewEvent;
+
+import java.util.List;
+
+/**
+ * A read model built from the review event log. {@link ProjectionRunner} feeds every projection the
+ * events after its checkpoint, in sequence order and in batches.
+ */
+public interface ReviewProjection {
+
+    // Уникальное имя, ключ в projection_checkpoint
+    String name();
+
+    // true: состояние в БД, apply и позиция пишутся в одной транзакции.
+    // false: состояние в памяти узла, после рестарта строится заново с начала журнала
+    boolean durable();
+
+    // Стирает состояние перед перестройкой с нуля
+    void reset();
+
+    void apply(List<ReviewEvent> events);
+}
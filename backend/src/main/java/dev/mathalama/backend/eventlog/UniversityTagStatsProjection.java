@@ -0,0 +1,75 @@
+package dev.mathalama.backend.eventlog;
+
+import dev.mathalama.backend.domain.ReviewEvent;
+import dev.mathalama.backend.domain.UniversityTagStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// university_tag_stats: сколько раз тег встречается в отзывах университета (для сравнения университетов)
+@Component
+@RequiredArgsConstructor
+public class UniversityTagStatsProjection implements ReviewProjection {
+
+    public static final String NAME = "university-tag-stats";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean durable() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        jdbcTemplate.update("DELETE FROM university_tag_stats");
+    }
+
+    // Дельты по всей порции суммируются в памяти, в БД — один batch upsert
+    @Override
+    public void apply(List<ReviewEvent> events) {
+        Map<UniversityTagStats.Key, Integer> deltas = new HashMap<>();
+        for (ReviewEvent event : events) {
+            if (event.getUniversityId() == null || event.getTags() == null) {
+                continue;
+            }
+            int sign = event.getType() == ReviewEvent.Type.CREATED ? 1 : -1;
+            for (String tag : event.getTags().split(",")) {
+                String trimmed = tag.trim();
+                if (!trimmed.isEmpty()) {
+                    deltas.merge(new UniversityTagStats.Key(event.getUniversityId(), trimmed), sign, Integer::sum);
+                }
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        boolean decremented = false;
+        for (Map.Entry<UniversityTagStats.Key, Integer> delta : deltas.entrySet()) {
+            if (delta.getValue() == 0) {
+                continue;
+            }
+            decremented |= delta.getValue() < 0;
+            rows.add(new Object[]{delta.getKey().getUniversityId(), delta.getKey().getTag(), delta.getValue()});
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO university_tag_stats (university_id, tag, review_count) VALUES (?, ?, ?)
+                ON CONFLICT (university_id, tag) DO UPDATE SET review_count = university_tag_stats.review_count + EXCLUDED.review_count
+                """, rows);
+        if (decremented) {
+            jdbcTemplate.update("DELETE FROM university_tag_stats WHERE review_count <= 0");
+        }
+    }
+}
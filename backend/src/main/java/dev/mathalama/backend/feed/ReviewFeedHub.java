@@ -0,0 +1,233 @@
+package dev.mathalama.backend.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local SSE subscribers of the review feed, global and per university.
+ * <p>
+ * An idle subscriber is only an async request parked by Tomcat plus a {@link Subscriber} with
+ * an empty queue, no thread is held. Events are serialized once and queued per connection; a
+ * small shared pool drains the queues, so one slow client never delays the others. A client
+ * whose queue reaches {@code queueCapacity} is disconnected (EventSource reconnects and reloads
+ * the list). Heartbeat comments keep proxies from closing idle connections and detect dead ones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewFeedHub {
+
+    public static final Long GLOBAL = 0L;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.review-feed.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${application.review-feed.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${application.review-feed.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${application.review-feed.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private ExecutorService sender;
+
+    @PostConstruct
+    void start() {
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "review-feed-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("review.feed.subscribers", count, AtomicInteger::get)
+                .description("Open SSE connections of the review feed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    // universityId = GLOBAL для общей ленты
+    public SseEmitter subscribe(Long universityId) {
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            throw new RuntimeException("Too many live feed subscribers, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(universityId, emitter);
+        subscribers.computeIfAbsent(universityId, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscriber.offer(Message.comment("connected"));
+        return emitter;
+    }
+
+    // JSON события из Redis (ReviewFeedPublisher): уходит подписчикам университета и общей ленты
+    public void dispatch(String json) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(json);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed review feed message: {}", e.getMessage());
+            return;
+        }
+        String type = node.path("type").asText();
+        Long universityId = node.path("universityId").asLong();
+        Message event = switch (type) {
+            case "CREATED" -> new Message("review-created", node.path("reviewId").asText(), json, null);
+            // Массовое удаление: без id события, список удалённых отзывов в reviewIds
+            case "BULK_DELETED" -> new Message("reviews-deleted", null, json, null);
+            default -> new Message("review-deleted", node.path("reviewId").asText(), json, null);
+        };
+
+        broadcast(subscribers.get(universityId), event);
+        broadcast(subscribers.get(GLOBAL), event);
+        meterRegistry.counter("review.feed.events", "type", type).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${application.review-feed.heartbeat-ms:20000}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            broadcast(set, Message.comment("heartbeat"));
+        }
+    }
+
+    private void broadcast(Set<Subscriber> set, Message event) {
+        if (set == null) {
+            return;
+        }
+        for (Subscriber subscriber : set) {
+            subscriber.offer(event);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> set = subscribers.get(subscriber.universityId);
+        if (set != null && set.remove(subscriber)) {
+            count.decrementAndGet();
+            if (set.isEmpty()) {
+                subscribers.remove(subscriber.universityId, set);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final Long universityId;
+        private final SseEmitter emitter;
+        private ArrayDeque<Message> queue;
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(Long universityId, SseEmitter emitter) {
+            this.universityId = universityId;
+            this.emitter = emitter;
+        }
+
+        void offer(Message event) {
+            boolean disconnect = false;
+            boolean schedule = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue == null) {
+                    queue = new ArrayDeque<>(4);
+                }
+                if (queue.size() >= queueCapacity) {
+                    closed = true;
+                    queue = null;
+                    disconnect = true;
+                } else {
+                    queue.add(event);
+                    if (!draining) {
+                        draining = true;
+                        schedule = true;
+                    }
+                }
+            }
+            if (disconnect) {
+                meterRegistry.counter("review.feed.disconnected", "reason", "slow").increment();
+                remove(this);
+                emitter.complete();
+            } else if (schedule) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Message event;
+                synchronized (this) {
+                    event = closed || queue == null ? null : queue.poll();
+                    if (event == null) {
+                        draining = false;
+                        // пустая очередь не держит память у простаивающего подписчика
+                        queue = null;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event.toSse());
+                } catch (Exception e) {
+                    synchronized (this) {
+                        closed = true;
+                        draining = false;
+                        queue = null;
+                    }
+                    remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Неизменяемое событие: один экземпляр (и одна JSON-строка) на всех подписчиков
+    private record Message(String name, String id, String json, String comment) {
+
+        static Message comment(String comment) {
+            return new Message(null, null, null, comment);
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (comment != null) {
+                return builder.comment(comment);
+            }
+            if (id != null) {
+                builder.id(id);
+            }
+            return builder.name(name).data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+}
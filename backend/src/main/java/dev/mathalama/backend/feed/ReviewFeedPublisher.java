@@ -0,0 +1,56 @@
+package dev.mathalama.backend.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.mathalama.backend.event.ReviewFeedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends committed review changes to every instance through Redis pub/sub; each instance,
+ * this one included, hands what it receives to its local {@link ReviewFeedHub}.
+ * If Redis is unavailable the event still reaches this instance's subscribers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewFeedPublisher {
+
+    static final ChannelTopic CHANNEL = new ChannelTopic("review-feed");
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ReviewFeedHub hub;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> hub.dispatch(new String(message.getBody(), StandardCharsets.UTF_8)), CHANNEL);
+    }
+
+    @TransactionalEventListener
+    public void onReviewChanged(ReviewFeedEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize review feed event {}: {}", event.reviewId(), e.getMessage());
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL.getTopic(), json);
+        } catch (Exception e) {
+            log.warn("Redis unavailable, review feed event delivered to local subscribers only: {}", e.getMessage());
+            hub.dispatch(json);
+        }
+    }
+}
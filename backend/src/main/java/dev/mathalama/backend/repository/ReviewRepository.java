@@ -4,6 +4,7 @@ import dev.mathalama.backend.domain.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import org.springframework.data.jpa.repository.EntityGraph;
+
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
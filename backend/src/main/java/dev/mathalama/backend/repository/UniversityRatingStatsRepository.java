@@ -0,0 +1,22 @@
+package dev.mathalama.backend.repository;
+
+import dev.mathalama.backend.domain.UniversityRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UniversityRatingStatsRepository extends JpaRepository<UniversityRatingStats, Long> {
+
+    // Поэлементно прибавляет delta ('{0,1,0,...}') к счётчикам; строка создаётся при первом отзыве
+    @Modifying
+    @Query(value = """
+            INSERT INTO university_rating_stats (university_id, counts)
+            VALUES (:universityId, CAST(:delta AS integer[]))
+            ON CONFLICT (university_id) DO UPDATE SET counts = (
+                SELECT array_agg(c.stored + c.delta ORDER BY c.idx)
+                FROM unnest(university_rating_stats.counts, EXCLUDED.counts) WITH ORDINALITY AS c(stored, delta, idx)
+            )
+            """, nativeQuery = true)
+    void addCounts(@Param("universityId") Long universityId, @Param("delta") String delta);
+}
@@ -0,0 +1,32 @@
+package dev.mathalama.backend.repository;
+
+import dev.mathalama.backend.domain.UniversityRatingTrend;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UniversityRatingTrendRepository extends JpaRepository<UniversityRatingTrend, UniversityRatingTrend.Key> {
+
+    List<UniversityRatingTrend> findAllByIdUniversityIdAndIdPeriodStartBetweenOrderByIdPeriodStart(
+            Long universityId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO university_rating_trend (university_id, period_start, review_count, sums)
+            VALUES (:universityId, :periodStart, :reviewCount, CAST(:sums AS bigint[]))
+            ON CONFLICT (university_id, period_start) DO UPDATE SET
+                review_count = university_rating_trend.review_count + EXCLUDED.review_count,
+                sums = (
+                    SELECT array_agg(c.stored + c.delta ORDER BY c.idx)
+                    FROM unnest(university_rating_trend.sums, EXCLUDED.sums) WITH ORDINALITY AS c(stored, delta, idx)
+                )
+            """, nativeQuery = true)
+    void addBucket(@Param("universityId") Long universityId,
+                   @Param("periodStart") LocalDate periodStart,
+                   @Param("reviewCount") int reviewCount,
+                   @Param("sums") String sums);
+}
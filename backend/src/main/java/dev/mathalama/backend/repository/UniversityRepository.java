@@ -3,9 +3,20 @@ package dev.mathalama.backend.repository;
 import dev.mathalama.backend.domain.University;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface UniversityRepository extends JpaRepository<University, Long> {
     @EntityGraph(attributePaths = {"reviews"})
     List<University> findAll();
+
+    @EntityGraph(attributePaths = {"reviews"})
+    List<University> findAllByIdIn(Collection<Long> ids);
+
+    // id, name, city, country, review count — без загрузки самих отзывов
+    @Query("select u.id, u.name, u.city, u.country, count(r.id) from University u left join u.reviews r " +
+            "group by u.id, u.name, u.city, u.country")
+    List<Object[]> findSuggestionRows();
 }
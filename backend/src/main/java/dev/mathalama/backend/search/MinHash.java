@@ -0,0 +1,88 @@
+package dev.mathalama.backend.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over word 3-gram shingles of folded text, plus LSH banding.
+ * <p>
+ * {@value #PERMUTATIONS} 32-bit minimums per text (256 bytes). With {@value #BANDS} bands of
+ * {@value #ROWS} rows, texts with Jaccard similarity 0.8 share a band with probability above
+ * 0.999 and texts at 0.3 only about 12% of the time, so candidates are few and then checked
+ * against the full signature.
+ */
+public final class MinHash {
+
+    public static final int PERMUTATIONS = 64;
+    static final int BANDS = 16;
+    static final int ROWS = PERMUTATIONS / BANDS;
+    static final int SHINGLE = 3;
+
+    // Фиксированное зерно: подписи должны совпадать на всех узлах и после перезапуска
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(PERMUTATIONS).toArray();
+
+    private MinHash() {
+    }
+
+    // null, если в тексте меньше minTokens слов: короткие отзывы часто совпадают честно
+    public static int[] signature(String text, int minTokens) {
+        List<String> tokens = TextFolding.tokens(text);
+        if (tokens.size() < Math.max(minTokens, SHINGLE)) {
+            return null;
+        }
+        long[] tokenHashes = new long[tokens.size()];
+        for (int i = 0; i < tokenHashes.length; i++) {
+            tokenHashes[i] = mix(tokens.get(i).hashCode());
+        }
+        long[] min = new long[PERMUTATIONS];
+        Arrays.fill(min, Long.MAX_VALUE);
+        for (int i = 0; i + SHINGLE <= tokenHashes.length; i++) {
+            long shingle = mix(tokenHashes[i] * 31 * 31 + tokenHashes[i + 1] * 31 + tokenHashes[i + 2]);
+            for (int p = 0; p < PERMUTATIONS; p++) {
+                long value = mix(shingle ^ SEEDS[p]) >>> 1;
+                if (value < min[p]) {
+                    min[p] = value;
+                }
+            }
+        }
+        int[] signature = new int[PERMUTATIONS];
+        for (int p = 0; p < PERMUTATIONS; p++) {
+            signature[p] = (int) (min[p] >>> 31);
+        }
+        return signature;
+    }
+
+    // Оценка коэффициента Жаккара: доля совпавших минимумов
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < PERMUTATIONS; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / PERMUTATIONS;
+    }
+
+    static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long h = band;
+            for (int row = 0; row < ROWS; row++) {
+                h = mix(h * 0x9E3779B97F4A7C15L + signature[band * ROWS + row]);
+            }
+            keys[band] = h;
+        }
+        return keys;
+    }
+
+    // fmix64 из MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
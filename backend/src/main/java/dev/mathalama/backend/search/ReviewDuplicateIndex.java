@@ -0,0 +1,318 @@
+package dev.mathalama.backend.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * LSH index of MinHash signatures of the most recent reviews, used to catch the same text pasted
+ * under many universities or accounts.
+ * <p>
+ * Holds at most {@code capacity} reviews in a ring (oldest evicted first), about 400 bytes each.
+ * Built from the review table on startup ({@link #rebuild()}); reviews added or deleted on any
+ * node are propagated to the others through the Redis channel {@code review-signatures}. Changes
+ * that arrive while a rebuild is reading the table are buffered and replayed onto the rebuilt index.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewDuplicateIndex {
+
+    static final ChannelTopic CHANNEL = new ChannelTopic("review-signatures");
+
+    public enum Action {
+        OFF,
+        FLAG,
+        REJECT
+    }
+
+    public record Match(Long reviewId, Long universityId, double similarity) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.review-duplicates.action:FLAG}")
+    private Action action;
+
+    @Value("${application.review-duplicates.capacity:50000}")
+    private int capacity;
+
+    @Value("${application.review-duplicates.threshold:0.8}")
+    private double threshold;
+
+    @Value("${application.review-duplicates.min-tokens:8}")
+    private int minTokens;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+    private final Map<Long, Entry> byReview = new HashMap<>();
+    private Entry[] ring;
+    private int next;
+    // Не null, пока rebuild() читает таблицу: изменения, пришедшие за это время
+    private List<SignatureMessage> duringRebuild;
+
+    @PostConstruct
+    void init() {
+        ring = new Entry[capacity];
+        listenerContainer.addMessageListener((message, pattern) ->
+                apply(new String(message.getBody(), StandardCharsets.UTF_8)), CHANNEL);
+    }
+
+    /**
+     * Signature of the text to pass to {@link #indexAfterCommit}, or null when the text is too short
+     * or detection is off. Throws when a near-duplicate exists and the action is REJECT.
+     */
+    public int[] check(String text) {
+        if (action == Action.OFF) {
+            return null;
+        }
+        int[] signature = MinHash.signature(text, minTokens);
+        if (signature == null) {
+            return null;
+        }
+        Match match = findNearDuplicate(signature);
+        if (match != null) {
+            meterRegistry.counter("reviews.duplicates", "action", action.name()).increment();
+            log.warn("Near-duplicate review text ({}% similar to review {} of university {}), action {}",
+                    Math.round(match.similarity() * 100), match.reviewId(), match.universityId(), action);
+            if (action == Action.REJECT) {
+                throw new RuntimeException("This review is too similar to an existing review");
+            }
+        }
+        return signature;
+    }
+
+    public Match findNearDuplicate(int[] signature) {
+        long[] keys = MinHash.bandKeys(signature);
+        Match best = null;
+        lock.readLock().lock();
+        try {
+            for (long key : keys) {
+                List<Entry> bucket = buckets.get(key);
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry entry : bucket) {
+                    double similarity = MinHash.similarity(signature, entry.signature);
+                    if (similarity >= threshold && (best == null || similarity > best.similarity())) {
+                        best = new Match(entry.reviewId, entry.universityId, similarity);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return best;
+    }
+
+    public void indexAfterCommit(Long reviewId, Long universityId, int[] signature) {
+        if (signature != null) {
+            afterCommit(new SignatureMessage(reviewId, universityId, signature, null));
+        }
+    }
+
+    public void removeAfterCommit(Long reviewId) {
+        if (action != Action.OFF) {
+            afterCommit(new SignatureMessage(reviewId, null, null, null));
+        }
+    }
+
+    // Массовые удаления (модерация, удаление пользователя или университета) — одним сообщением
+    public void removeAllAfterCommit(Collection<Long> reviewIds) {
+        if (action != Action.OFF && !reviewIds.isEmpty()) {
+            afterCommit(new SignatureMessage(null, null, null, List.copyOf(reviewIds)));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (action == Action.OFF) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Entry> loaded = new ArrayList<>();
+        try {
+            jdbcTemplate.query("SELECT id, university_id, text FROM review ORDER BY id DESC LIMIT ?", rs -> {
+                int[] signature = MinHash.signature(rs.getString(3), minTokens);
+                if (signature != null) {
+                    loaded.add(new Entry(rs.getLong(1), rs.getLong(2), signature));
+                }
+            }, capacity);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            duringRebuild = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            byReview.clear();
+            ring = new Entry[capacity];
+            next = 0;
+            // от старых к новым, чтобы вытеснялись самые старые
+            for (int i = loaded.size() - 1; i >= 0; i--) {
+                insert(loaded.get(i));
+            }
+            // Запрос мог не увидеть отзывы, закоммиченные после его начала, и удаления после него
+            for (SignatureMessage message : duringRebuild) {
+                applyLocked(message);
+            }
+            duringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Review duplicate index rebuilt with {} reviews in {} ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byReview.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(SignatureMessage message) {
+        Runnable publish = () -> {
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(message);
+            } catch (Exception e) {
+                return;
+            }
+            try {
+                redisTemplate.convertAndSend(CHANNEL.getTopic(), json);
+            } catch (Exception e) {
+                log.warn("Redis unavailable, review signature kept on this node only: {}", e.getMessage());
+                apply(json);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    // Сообщение приходит и на узел-отправитель: добавление идемпотентно
+    private void apply(String json) {
+        SignatureMessage message;
+        try {
+            message = objectMapper.readValue(json, SignatureMessage.class);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed review signature message: {}", e.getMessage());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            applyLocked(message);
+            if (duringRebuild != null) {
+                duringRebuild.add(message);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(SignatureMessage message) {
+        if (message.removed() != null) {
+            message.removed().forEach(this::remove);
+        } else if (message.signature() == null) {
+            remove(message.reviewId());
+        } else if (message.signature().length == MinHash.PERMUTATIONS && !byReview.containsKey(message.reviewId())) {
+            insert(new Entry(message.reviewId(), message.universityId(), message.signature()));
+        }
+    }
+
+    private void remove(Long reviewId) {
+        Entry entry = byReview.get(reviewId);
+        if (entry != null) {
+            unlink(entry);
+            ring[entry.slot] = null;
+        }
+    }
+
+    private void insert(Entry entry) {
+        Entry evicted = ring[next];
+        if (evicted != null) {
+            unlink(evicted);
+        }
+        entry.slot = next;
+        ring[next] = entry;
+        next = (next + 1) % ring.length;
+        byReview.put(entry.reviewId, entry);
+        for (long key : entry.bandKeys) {
+            buckets.computeIfAbsent(key, k -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        byReview.remove(entry.reviewId);
+        for (long key : entry.bandKeys) {
+            List<Entry> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(entry);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    // signature == null означает удаление отзыва, removed — удаление сразу нескольких
+    record SignatureMessage(Long reviewId, Long universityId, int[] signature, List<Long> removed) {
+    }
+
+    private static final class Entry {
+        private final Long reviewId;
+        private final Long universityId;
+        private final int[] signature;
+        private final long[] bandKeys;
+        private int slot;
+
+        private Entry(Long reviewId, Long universityId, int[] signature) {
+            this.reviewId = reviewId;
+            this.universityId = universityId;
+            this.signature = signature;
+            this.bandKeys = MinHash.bandKeys(signature);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package dev.mathalama.backend.search;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Precomputed k nearest neighbours of every university, so "similar universities" is a lookup.
+ * <p>
+ * Similarity combines the per-dimension rating profile (facilities, opportunities, location, internet,
+ * food, difficulty; 1 - RMS distance of the averages scaled to 0..1) with tag overlap (Jaccard over the
+ * 128-bit tag masks of {@link UniversityProfiles}). Universities without reviews have no profile and
+ * neither get nor appear as neighbours.
+ * <p>
+ * A full refresh is a brute-force O(n²) pass over packed float vectors, split by rows on a dedicated
+ * fork/join pool; every row owns its slice of the table, so workers never share mutable state. When
+ * only some aggregates change, the changed rows are recomputed and every other row just re-scores the
+ * changed universities against its current list. A neighbour that drops out that way leaves its slot
+ * empty until the next full refresh. Catalog additions and removals take the same path: lists are
+ * carried over by id, added universities are recomputed as changed rows and removed ones are struck
+ * from every list, so the O(n²) pass only runs on a full reload of the profiles (startup and the
+ * periodic full refresh). Changes arrive already batched per profile refresh interval.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarUniversitiesIndex implements UniversityProfileStore.Listener {
+
+    public record Neighbour(long universityId, float score) {
+    }
+
+    // Общая оценка (rating) в профиль не входит: похожесть — по отдельным аспектам
+    private static final ReviewDimension[] PROFILE = {
+            ReviewDimension.FACILITIES, ReviewDimension.OPPORTUNITIES, ReviewDimension.LOCATION,
+            ReviewDimension.INTERNET, ReviewDimension.FOOD, ReviewDimension.DIFFICULTY};
+    private static final int P = PROFILE.length;
+    private static final float PROFILE_WEIGHT = 0.75f;
+    private static final float TAG_WEIGHT = 0.25f;
+    private static final int ROWS_PER_TASK = 64;
+    private static final long EMPTY = -1;
+
+    private final UniversityProfileStore store;
+
+    @Value("${application.similar.k:10}")
+    private int k;
+
+    private ForkJoinPool pool;
+    private volatile Table table;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        store.addListener(this);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public int maxNeighbours() {
+        return k;
+    }
+
+    // null — университета нет в индексе (не существует или индекс ещё не построен)
+    public List<Neighbour> neighbours(long universityId, int limit) {
+        Table current = table;
+        int row = current == null ? -1 : Arrays.binarySearch(current.ids, universityId);
+        if (row < 0) {
+            return null;
+        }
+        List<Neighbour> result = new ArrayList<>(Math.min(limit, k));
+        int base = row * k;
+        for (int slot = 0; slot < Math.min(limit, k) && current.neighbours[base + slot] != EMPTY; slot++) {
+            result.add(new Neighbour(current.neighbours[base + slot], current.scores[base + slot]));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void profilesChanged(UniversityProfiles previous, UniversityProfiles current, Set<Long> changedIds) {
+        long start = System.nanoTime();
+        Table old = table;
+        if (changedIds == null || old == null) {
+            Table next = Table.from(current, k);
+            pool.invoke(new Rows(next, 0, next.size(), null));
+            table = next;
+            log.info("Similar universities computed for {} universities in {} ms",
+                    next.size(), (System.nanoTime() - start) / 1_000_000);
+            return;
+        }
+
+        int[] changed = changedIds.stream()
+                .mapToInt(id -> Arrays.binarySearch(current.ids, id))
+                .filter(row -> row >= 0)
+                .sorted()
+                .toArray();
+        boolean sameIds = Arrays.equals(old.ids, current.ids);
+        if (sameIds && changed.length == 0) {
+            return;
+        }
+        Table next = sameIds ? old.withProfiles(current, changed) : old.withIds(current);
+        if (changed.length > 0) {
+            pool.invoke(new Rows(next, 0, next.size(), changed));
+        }
+        table = next;
+        log.debug("Similar universities updated for {} changed universities ({} in total) in {} ms",
+                changed.length, next.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Rows [from, to). Without {@code changed}: full recompute. With it: changed rows are recomputed,
+     * the others re-score only the changed universities.
+     */
+    private static final class Rows extends RecursiveAction {
+
+        private final Table table;
+        private final int from;
+        private final int to;
+        private final int[] changed;
+
+        Rows(Table table, int from, int to, int[] changed) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+            this.changed = changed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Rows(table, from, mid, changed), new Rows(table, mid, to, changed));
+                return;
+            }
+            for (int row = from; row < to; row++) {
+                if (changed == null || Arrays.binarySearch(changed, row) >= 0) {
+                    table.recompute(row);
+                } else {
+                    for (int other : changed) {
+                        table.rescore(row, other);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Table {
+
+        final long[] ids;
+        final int k;
+        // Профиль строки i — vectors[i * P .. i * P + P), оценки приведены к 0..1
+        final float[] vectors;
+        final long[] tagsLow;
+        final long[] tagsHigh;
+        final boolean[] present;
+        // Соседи строки i — neighbours[i * k ..], по убыванию score, пустые слоты = EMPTY
+        final long[] neighbours;
+        final float[] scores;
+
+        private Table(long[] ids, int k, float[] vectors, long[] tagsLow, long[] tagsHigh, boolean[] present,
+                      long[] neighbours, float[] scores) {
+            this.ids = ids;
+            this.k = k;
+            this.vectors = vectors;
+            this.tagsLow = tagsLow;
+            this.tagsHigh = tagsHigh;
+            this.present = present;
+            this.neighbours = neighbours;
+            this.scores = scores;
+        }
+
+        static Table from(UniversityProfiles profiles, int k) {
+            int n = profiles.size();
+            Table table = new Table(profiles.ids.clone(), k, new float[n * P], profiles.tagsLow.clone(),
+                    profiles.tagsHigh.clone(), new boolean[n], new long[n * k], new float[n * k]);
+            for (int row = 0; row < n; row++) {
+                table.loadProfile(profiles, row);
+            }
+            return table;
+        }
+
+        // Копия таблицы со свежими профилями изменившихся строк; старую читают параллельные запросы
+        Table withProfiles(UniversityProfiles profiles, int[] changed) {
+            Table next = new Table(ids, k, vectors.clone(), tagsLow.clone(), tagsHigh.clone(), present.clone(),
+                    neighbours.clone(), scores.clone());
+            for (int row : changed) {
+                next.tagsLow[row] = profiles.tagsLow[row];
+                next.tagsHigh[row] = profiles.tagsHigh[row];
+                next.loadProfile(profiles, row);
+            }
+            return next;
+        }
+
+        // Копия под новый состав каталога: списки соседей переносятся по id, у новых строк они пусты,
+        // удалённые университеты вычёркиваются из всех списков
+        Table withIds(UniversityProfiles profiles) {
+            Table next = from(profiles, k);
+            Arrays.fill(next.neighbours, EMPTY);
+            Arrays.fill(next.scores, Float.NEGATIVE_INFINITY);
+            long[] removed = Arrays.stream(ids).filter(id -> Arrays.binarySearch(next.ids, id) < 0).toArray();
+            for (int row = 0; row < next.size(); row++) {
+                int previous = Arrays.binarySearch(ids, next.ids[row]);
+                if (previous < 0) {
+                    continue;
+                }
+                System.arraycopy(neighbours, previous * k, next.neighbours, row * k, k);
+                System.arraycopy(scores, previous * k, next.scores, row * k, k);
+                for (long id : removed) {
+                    next.remove(row, id);
+                }
+            }
+            return next;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        private void loadProfile(UniversityProfiles profiles, int row) {
+            present[row] = profiles.reviewCounts[row] > 0;
+            for (int p = 0; p < P; p++) {
+                float average = profiles.averages[PROFILE[p].ordinal()][row];
+                vectors[row * P + p] = present[row]
+                        ? (average - ReviewDimension.MIN_SCORE) / (ReviewDimension.MAX_SCORE - ReviewDimension.MIN_SCORE)
+                        : 0f;
+            }
+        }
+
+        void recompute(int row) {
+            int base = row * k;
+            Arrays.fill(neighbours, base, base + k, EMPTY);
+            Arrays.fill(scores, base, base + k, Float.NEGATIVE_INFINITY);
+            if (!present[row]) {
+                return;
+            }
+            for (int other = 0; other < ids.length; other++) {
+                if (other != row && present[other]) {
+                    offer(row, other, score(row, other));
+                }
+            }
+        }
+
+        void rescore(int row, int other) {
+            if (!present[row]) {
+                return;
+            }
+            remove(row, ids[other]);
+            if (present[other]) {
+                offer(row, other, score(row, other));
+            }
+        }
+
+        float score(int a, int b) {
+            float distance = 0f;
+            int offsetA = a * P;
+            int offsetB = b * P;
+            for (int p = 0; p < P; p++) {
+                float diff = vectors[offsetA + p] - vectors[offsetB + p];
+                distance += diff * diff;
+            }
+            float profile = 1f - (float) Math.sqrt(distance / P);
+
+            int union = Long.bitCount(tagsLow[a] | tagsLow[b]) + Long.bitCount(tagsHigh[a] | tagsHigh[b]);
+            float tags = union == 0 ? 0f
+                    : (Long.bitCount(tagsLow[a] & tagsLow[b]) + Long.bitCount(tagsHigh[a] & tagsHigh[b])) / (float) union;
+            return PROFILE_WEIGHT * profile + TAG_WEIGHT * tags;
+        }
+
+        // Вставка в отсортированный список строки, худший сосед вытесняется
+        private void offer(int row, int other, float score) {
+            int base = row * k;
+            int last = base + k - 1;
+            if (neighbours[last] != EMPTY && score <= scores[last]) {
+                return;
+            }
+            int slot = last;
+            while (slot > base && (neighbours[slot - 1] == EMPTY || scores[slot - 1] < score)) {
+                neighbours[slot] = neighbours[slot - 1];
+                scores[slot] = scores[slot - 1];
+                slot--;
+            }
+            neighbours[slot] = ids[other];
+            scores[slot] = score;
+        }
+
+        private void remove(int row, long id) {
+            int base = row * k;
+            for (int slot = base; slot < base + k && neighbours[slot] != EMPTY; slot++) {
+                if (neighbours[slot] == id) {
+                    System.arraycopy(neighbours, slot + 1, neighbours, slot, base + k - slot - 1);
+                    System.arraycopy(scores, slot + 1, scores, slot, base + k - slot - 1);
+                    neighbours[base + k - 1] = EMPTY;
+                    scores[base + k - 1] = Float.NEGATIVE_INFINITY;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.mathalama.backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Case and diacritic folding for search keys. Latin accents are stripped via NFD,
+ * Cyrillic is folded to the base Russian alphabet (ё → е, й → и, Kazakh and Ukrainian letters
+ * to their closest Russian counterpart) so users can type without a special layout.
+ */
+public final class TextFolding {
+
+    private TextFolding() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            sb.append(foldChar(Character.toLowerCase(c)));
+        }
+        return sb.toString();
+    }
+
+    public static List<String> tokens(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letter = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static char foldChar(char c) {
+        return switch (c) {
+            case 'ә' -> 'а';
+            case 'ғ', 'ґ' -> 'г';
+            case 'қ' -> 'к';
+            case 'ң' -> 'н';
+            case 'ө' -> 'о';
+            case 'ұ', 'ү', 'ў' -> 'у';
+            case 'һ' -> 'х';
+            case 'і', 'ї' -> 'и';
+            case 'є' -> 'е';
+            case 'ß' -> 's';
+            case 'ø' -> 'o';
+            case 'ł' -> 'l';
+            case 'ı' -> 'i';
+            default -> c;
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package dev.mathalama.backend.search;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import dev.mathalama.backend.domain.UniversityRatingStats;
+import dev.mathalama.backend.event.RatingAggregatesChangedEvent;
+import dev.mathalama.backend.event.UniversityChangedEvent;
+import dev.mathalama.backend.service.SqlArrays;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Array;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the current {@link UniversityProfiles} snapshot. Loaded in full at startup and periodically;
+ * in between, universities whose aggregates or catalog entry changed are marked dirty and reloaded in
+ * small batches. Consumers (similar universities, personalized ranking) register a {@link Listener}
+ * and are told about every new snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UniversityProfileStore {
+
+    public interface Listener {
+        // changedIds == null — снимок собран заново целиком
+        void profilesChanged(UniversityProfiles previous, UniversityProfiles current, Set<Long> changedIds);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile UniversityProfiles current = UniversityProfiles.empty();
+
+    public UniversityProfiles current() {
+        return current;
+    }
+
+    // package-private для бенчмарков и тестов (src/jmh, src/test): снимок без базы
+    void replace(UniversityProfiles profiles) {
+        current = profiles;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAggregatesChanged(RatingAggregatesChangedEvent event) {
+        dirty.addAll(event.universityIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUniversityChanged(UniversityChangedEvent event) {
+        dirty.add(event.universityId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.profiles.full-refresh-interval-ms:3600000}", initialDelay = 3600000)
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        dirty.clear();
+        UniversityProfiles previous = current;
+        current = UniversityProfiles.of(load(null));
+        log.info("University profiles loaded: {} universities in {} ms",
+                current.size(), (System.nanoTime() - start) / 1_000_000);
+        notifyListeners(previous, null);
+    }
+
+    @Scheduled(fixedDelayString = "${application.profiles.refresh-interval-ms:5000}")
+    public synchronized void refreshDirty() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(dirty);
+        dirty.removeAll(ids);
+        try {
+            SortedMap<Long, UniversityProfiles.Row> rows = load(ids);
+            Set<Long> removed = new HashSet<>(ids);
+            removed.removeAll(rows.keySet());
+            UniversityProfiles previous = current;
+            current = previous.merge(rows, removed);
+            notifyListeners(previous, ids);
+        } catch (RuntimeException e) {
+            dirty.addAll(ids);
+            log.warn("University profile refresh failed for {} universities, will retry: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private void notifyListeners(UniversityProfiles previous, Set<Long> changedIds) {
+        for (Listener listener : listeners) {
+            try {
+                listener.profilesChanged(previous, current, changedIds);
+            } catch (RuntimeException e) {
+                log.error("University profile listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    // ids == null — все университеты. Университет без строки статистики — без отзывов
+    private SortedMap<Long, UniversityProfiles.Row> load(Set<Long> ids) {
+        String filter = ids == null ? "" : " WHERE u.id = ANY (CAST(? AS bigint[]))";
+        Object[] args = ids == null ? new Object[0] : new Object[]{SqlArrays.literal(ids.stream().mapToLong(Long::longValue).toArray())};
+
+        Map<Long, long[]> tagMasks = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT r.university_id, array_agg(DISTINCT lower(trim(t.tag))) AS tags
+                FROM review r CROSS JOIN LATERAL unnest(string_to_array(r.tags, ',')) AS t(tag)
+                WHERE trim(t.tag) <> ''%s
+                GROUP BY r.university_id
+                """.formatted(ids == null ? "" : " AND r.university_id = ANY (CAST(? AS bigint[]))"), rs -> {
+            Array tags = rs.getArray("tags");
+            tagMasks.put(rs.getLong("university_id"), UniversityProfiles.tagMask(Arrays.asList((String[]) tags.getArray())));
+        }, args);
+
+        SortedMap<Long, UniversityProfiles.Row> rows = new TreeMap<>();
+        jdbcTemplate.query("SELECT u.id, s.counts FROM university u LEFT JOIN university_rating_stats s ON s.university_id = u.id"
+                + filter, rs -> {
+            long id = rs.getLong("id");
+            Array countsArray = rs.getArray("counts");
+            float[] averages = new float[UniversityProfiles.DIMENSIONS];
+            int reviewCount = 0;
+            if (countsArray != null) {
+                Integer[] counts = (Integer[]) countsArray.getArray();
+                for (ReviewDimension dimension : ReviewDimension.values()) {
+                    int base = UniversityRatingStats.slot(dimension, ReviewDimension.MIN_SCORE);
+                    long total = 0;
+                    long sum = 0;
+                    for (int i = 0; i < ReviewDimension.BUCKETS; i++) {
+                        total += counts[base + i];
+                        sum += (long) counts[base + i] * (i + ReviewDimension.MIN_SCORE);
+                    }
+                    averages[dimension.ordinal()] = total == 0 ? 0f : (float) sum / total;
+                    if (dimension == ReviewDimension.RATING) {
+                        reviewCount = (int) total;
+                    }
+                }
+            }
+            long[] mask = tagMasks.getOrDefault(id, new long[2]);
+            rows.put(id, new UniversityProfiles.Row(id, averages, reviewCount, mask[0], mask[1]));
+        }, args);
+        return rows;
+    }
+}
@@ -0,0 +1,145 @@
+package dev.mathalama.backend.search;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Immutable columnar snapshot of per-university rating aggregates: parallel primitive arrays indexed
+ * by row, rows sorted by university id. {@code averages[dimension.ordinal()][row]} is the average score
+ * of that dimension (0 when the university has no reviews), tags are a 128-bit hashed set of the
+ * university's distinct review tags. Updates produce a new snapshot, readers never see a partial one.
+ */
+public final class UniversityProfiles {
+
+    public static final int DIMENSIONS = ReviewDimension.values().length;
+
+    public record Row(long id, float[] averages, int reviewCount, long tagsLow, long tagsHigh) {
+    }
+
+    private static final UniversityProfiles EMPTY = new UniversityProfiles(0);
+
+    final long[] ids;
+    final float[][] averages;
+    final int[] reviewCounts;
+    final long[] tagsLow;
+    final long[] tagsHigh;
+
+    private UniversityProfiles(int size) {
+        ids = new long[size];
+        averages = new float[DIMENSIONS][size];
+        reviewCounts = new int[size];
+        tagsLow = new long[size];
+        tagsHigh = new long[size];
+    }
+
+    public static UniversityProfiles empty() {
+        return EMPTY;
+    }
+
+    public static UniversityProfiles of(SortedMap<Long, Row> rows) {
+        return EMPTY.merge(rows, Set.of());
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    // -1, если университета нет в снимке
+    public int indexOf(long id) {
+        int row = Arrays.binarySearch(ids, id);
+        return row >= 0 ? row : -1;
+    }
+
+    public float average(ReviewDimension dimension, int row) {
+        return averages[dimension.ordinal()][row];
+    }
+
+    public int reviewCount(int row) {
+        return reviewCounts[row];
+    }
+
+    /**
+     * New snapshot with {@code changed} rows inserted or replaced and {@code removed} ids dropped,
+     * in one ordered pass over both inputs.
+     */
+    public UniversityProfiles merge(SortedMap<Long, Row> changed, Set<Long> removed) {
+        int capacity = ids.length + changed.size();
+        UniversityProfiles next = new UniversityProfiles(capacity);
+        int size = 0;
+        int old = 0;
+        var pending = changed.entrySet().iterator();
+        Map.Entry<Long, Row> head = pending.hasNext() ? pending.next() : null;
+        while (old < ids.length || head != null) {
+            if (head != null && (old == ids.length || head.getKey() <= ids[old])) {
+                if (old < ids.length && head.getKey() == ids[old]) {
+                    old++;
+                }
+                if (!removed.contains(head.getKey())) {
+                    next.set(size++, head.getValue());
+                }
+                head = pending.hasNext() ? pending.next() : null;
+            } else {
+                if (!removed.contains(ids[old])) {
+                    next.copyFrom(size++, this, old);
+                }
+                old++;
+            }
+        }
+        return size == capacity ? next : next.truncate(size);
+    }
+
+    private void set(int row, Row value) {
+        ids[row] = value.id();
+        for (int d = 0; d < DIMENSIONS; d++) {
+            averages[d][row] = value.averages()[d];
+        }
+        reviewCounts[row] = value.reviewCount();
+        tagsLow[row] = value.tagsLow();
+        tagsHigh[row] = value.tagsHigh();
+    }
+
+    private void copyFrom(int row, UniversityProfiles source, int sourceRow) {
+        ids[row] = source.ids[sourceRow];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            averages[d][row] = source.averages[d][sourceRow];
+        }
+        reviewCounts[row] = source.reviewCounts[sourceRow];
+        tagsLow[row] = source.tagsLow[sourceRow];
+        tagsHigh[row] = source.tagsHigh[sourceRow];
+    }
+
+    private UniversityProfiles truncate(int size) {
+        UniversityProfiles result = new UniversityProfiles(size);
+        System.arraycopy(ids, 0, result.ids, 0, size);
+        for (int d = 0; d < DIMENSIONS; d++) {
+            System.arraycopy(averages[d], 0, result.averages[d], 0, size);
+        }
+        System.arraycopy(reviewCounts, 0, result.reviewCounts, 0, size);
+        System.arraycopy(tagsLow, 0, result.tagsLow, 0, size);
+        System.arraycopy(tagsHigh, 0, result.tagsHigh, 0, size);
+        return result;
+    }
+
+    // Тег -> один из 128 битов; пересечение масок приближает пересечение множеств тегов
+    public static long[] tagMask(Iterable<String> tags) {
+        long low = 0;
+        long high = 0;
+        for (String tag : tags) {
+            int bit = TextFolding.fold(tag.trim()).hashCode() & 127;
+            if (bit < 64) {
+                low |= 1L << bit;
+            } else {
+                high |= 1L << (bit - 64);
+            }
+        }
+        return new long[]{low, high};
+    }
+}
@@ -0,0 +1,152 @@
+package dev.mathalama.backend.search;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+
+/**
+ * Top-N universities by a user-supplied weighted sum of dimension averages, computed on the current
+ * {@link UniversityProfiles} snapshot. Scores are accumulated column by column (one tight loop per
+ * weighted dimension over a primitive array, which the JIT vectorizes), then a bounded min-heap of
+ * size N picks the best rows. Negative weights prefer low averages, e.g. {@code difficulty:-1}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UniversityRanking {
+
+    public static final int MAX_LIMIT = 100;
+    // Средние не больше 5, так что |оценка| <= 7 * 5 * MAX_WEIGHT и float не переполняется
+    public static final float MAX_WEIGHT = 1000f;
+
+    public record Ranked(long universityId, float score, int reviewCount) {
+    }
+
+    private final UniversityProfileStore store;
+
+    // "food:2,difficulty:-1" -> веса в порядке ReviewDimension; неуказанные измерения — 0
+    public static float[] parseWeights(String weights) {
+        float[] result = new float[UniversityProfiles.DIMENSIONS];
+        for (String part : weights.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int colon = part.indexOf(':');
+            if (colon < 0) {
+                throw badRequest("Weight must look like dimension:number, got '" + part.trim() + "'");
+            }
+            String name = part.substring(0, colon).trim();
+            ReviewDimension dimension = Arrays.stream(ReviewDimension.values())
+                    .filter(d -> d.column().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> badRequest("Unknown dimension: " + name));
+            float weight;
+            try {
+                weight = Float.parseFloat(part.substring(colon + 1).trim());
+            } catch (NumberFormatException e) {
+                throw badRequest("Invalid weight for " + name);
+            }
+            // NaN и бесконечность ("1e40") испортили бы все оценки и порядок в куче
+            if (!Float.isFinite(weight)) {
+                throw badRequest("Weight for " + name + " must be a finite number");
+            }
+            // Конечные, но огромные веса ("food:3e38,difficulty:-3e38") переполняют сумму до NaN
+            if (Math.abs(weight) > MAX_WEIGHT) {
+                throw badRequest("Weight for " + name + " must be between -" + (int) MAX_WEIGHT + " and " + (int) MAX_WEIGHT);
+            }
+            result[dimension.ordinal()] = weight;
+        }
+        return result;
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    public Ranked[] top(float[] weights, int limit, int minReviews) {
+        UniversityProfiles profiles = store.current();
+        int n = profiles.size();
+        float[] scores = new float[n];
+        for (int d = 0; d < weights.length; d++) {
+            float weight = weights[d];
+            if (weight == 0f) {
+                continue;
+            }
+            float[] column = profiles.averages[d];
+            for (int row = 0; row < n; row++) {
+                scores[row] += weight * column[row];
+            }
+        }
+
+        // Min-heap на примитивах: в корне худший из лучших N
+        int capacity = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int[] heapRows = new int[capacity];
+        float[] heapScores = new float[capacity];
+        int size = 0;
+        int threshold = Math.max(1, minReviews);
+        for (int row = 0; row < n; row++) {
+            if (profiles.reviewCounts[row] < threshold) {
+                continue;
+            }
+            float score = scores[row];
+            if (size < capacity) {
+                heapRows[size] = row;
+                heapScores[size] = score;
+                siftUp(heapRows, heapScores, size++);
+            } else if (score > heapScores[0]) {
+                heapRows[0] = row;
+                heapScores[0] = score;
+                siftDown(heapRows, heapScores, size);
+            }
+        }
+
+        Ranked[] result = new Ranked[size];
+        for (int i = size - 1; i >= 0; i--) {
+            int row = heapRows[0];
+            result[i] = new Ranked(profiles.ids[row], heapScores[0], profiles.reviewCounts[row]);
+            heapRows[0] = heapRows[i];
+            heapScores[0] = heapScores[i];
+            siftDown(heapRows, heapScores, i);
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] rows, float[] scores, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(rows, scores, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] rows, float[] scores, int size) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[index] <= scores[smallest]) {
+                return;
+            }
+            swap(rows, scores, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] rows, float[] scores, int a, int b) {
+        int row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,208 @@
+package dev.mathalama.backend.search;
+
+import dev.mathalama.backend.event.UniversityChangedEvent;
+import dev.mathalama.backend.repository.UniversityRepository;
+import dev.mathalama.backend.web.dto.UniversitySuggestion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory edge n-gram index for university typeahead.
+ * <p>
+ * Every folded token of name / city / country is indexed under all of its prefixes (up to
+ * {@link #MAX_PREFIX}). Posting sets are kept sorted by popularity, so a lookup walks a
+ * single posting set and stops as soon as it has {@code limit} verified matches.
+ * Name matches always rank above city/country matches.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UniversitySuggestionIndex {
+
+    static final int MAX_PREFIX = 12;
+    public static final int MAX_LIMIT = 20;
+
+    private static final Comparator<Entry> BY_POPULARITY = Comparator
+            .comparingLong(Entry::reviewCount).reversed()
+            .thenComparing(Entry::sortName)
+            .thenComparingLong(Entry::id);
+
+    private final UniversityRepository repository;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Entry>> namePostings = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Entry>> placePostings = new ConcurrentHashMap<>();
+
+    public List<UniversitySuggestion> suggest(String query, int limit) {
+        List<String> queryTokens = TextFolding.tokens(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int max = Math.min(limit, MAX_LIMIT);
+
+        // Самый длинный токен запроса даёт самый короткий posting list
+        String driver = queryTokens.get(0);
+        for (String token : queryTokens) {
+            if (token.length() > driver.length()) {
+                driver = token;
+            }
+        }
+        String key = driver.length() > MAX_PREFIX ? driver.substring(0, MAX_PREFIX) : driver;
+
+        List<UniversitySuggestion> result = new ArrayList<>(max);
+        Set<Long> seen = new HashSet<>();
+        collect(namePostings.get(key), queryTokens, max, result, seen);
+        if (result.size() < max) {
+            collect(placePostings.get(key), queryTokens, max, result, seen);
+        }
+        return result;
+    }
+
+    private void collect(NavigableSet<Entry> postings, List<String> queryTokens, int max,
+                         List<UniversitySuggestion> result, Set<Long> seen) {
+        if (postings == null) {
+            return;
+        }
+        for (Entry entry : postings) {
+            if (result.size() >= max) {
+                return;
+            }
+            if (!seen.contains(entry.id()) && entry.matchesAll(queryTokens)) {
+                seen.add(entry.id());
+                result.add(new UniversitySuggestion(entry.id(), entry.name(), entry.city(), entry.country()));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUniversityChanged(UniversityChangedEvent event) {
+        if (event.type() == UniversityChangedEvent.Type.DELETED) {
+            remove(event.universityId());
+        } else {
+            Entry previous = entries.get(event.universityId());
+            long reviewCount = previous != null ? previous.reviewCount() : 0;
+            put(event.universityId(), event.name(), event.city(), event.country(), reviewCount);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        int count = 0;
+        for (Object[] row : repository.findSuggestionRows()) {
+            put((Long) row[0], (String) row[1], (String) row[2], (String) row[3], ((Number) row[4]).longValue());
+            count++;
+        }
+        log.info("Suggestion index loaded {} universities in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Популярность (число отзывов) меняется часто, но для подсказок достаточно периодической сверки
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void refreshPopularity() {
+        for (Object[] row : repository.findSuggestionRows()) {
+            Long id = (Long) row[0];
+            long reviewCount = ((Number) row[4]).longValue();
+            Entry current = entries.get(id);
+            if (current != null && current.reviewCount() != reviewCount) {
+                put(id, current.name(), current.city(), current.country(), reviewCount);
+            }
+        }
+    }
+
+    synchronized void put(Long id, String name, String city, String country, long reviewCount) {
+        remove(id);
+        Entry entry = new Entry(id, name, city, country, reviewCount,
+                TextFolding.fold(name), tokenArray(name, city, country));
+        entries.put(id, entry);
+        for (String token : TextFolding.tokens(name)) {
+            index(namePostings, token, entry);
+        }
+        for (String token : TextFolding.tokens(city)) {
+            index(placePostings, token, entry);
+        }
+        for (String token : TextFolding.tokens(country)) {
+            index(placePostings, token, entry);
+        }
+    }
+
+    synchronized void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        unindex(namePostings, entry);
+        unindex(placePostings, entry);
+    }
+
+    private static void index(Map<String, NavigableSet<Entry>> postings, String token, Entry entry) {
+        int max = Math.min(token.length(), MAX_PREFIX);
+        for (int i = 1; i <= max; i++) {
+            postings.computeIfAbsent(token.substring(0, i), k -> new ConcurrentSkipListSet<>(BY_POPULARITY)).add(entry);
+        }
+    }
+
+    private static void unindex(Map<String, NavigableSet<Entry>> postings, Entry entry) {
+        for (String token : entry.tokens()) {
+            int max = Math.min(token.length(), MAX_PREFIX);
+            for (int i = 1; i <= max; i++) {
+                String key = token.substring(0, i);
+                NavigableSet<Entry> set = postings.get(key);
+                if (set != null) {
+                    set.remove(entry);
+                    if (set.isEmpty()) {
+                        postings.remove(key, set);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String[] tokenArray(String name, String city, String country) {
+        Map<String, Boolean> unique = new HashMap<>();
+        List<String> all = new ArrayList<>();
+        for (String source : new String[]{name, city, country}) {
+            for (String token : TextFolding.tokens(source)) {
+                if (unique.putIfAbsent(token, Boolean.TRUE) == null) {
+                    all.add(token);
+                }
+            }
+        }
+        return all.toArray(new String[0]);
+    }
+
+    private record Entry(Long id, String name, String city, String country, long reviewCount,
+                         String sortName, String[] tokens) {
+
+        boolean matchesAll(List<String> queryTokens) {
+            for (String query : queryTokens) {
+                boolean found = false;
+                for (String token : tokens) {
+                    if (token.startsWith(query)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.UniversityRatingStats;
+import dev.mathalama.backend.web.dto.ReconciliationStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reconciles the stored rating aggregates (histogram, monthly trend, University.averageRating) with
+ * the review table. Reviews are scanned in id-range chunks on a small dedicated pool, each chunk
+ * grouped by university and month in SQL and merged in memory; the stored aggregates are then read
+ * in university-id chunks and compared. A university is rebuilt, in batches, through
+ * {@link UniversityAggregateService} only if it differed in the previous run as well and still differs
+ * in a re-check on the primary taken under the rating flush lock. A review committed between the two
+ * reads makes a one-off difference; two consecutive runs rule that out.
+ * <p>
+ * Before taking a connection every chunk waits while any Hikari pool has threads waiting for a
+ * connection or is above {@code max-pool-usage}, so the job backs off as soon as the API needs the pool.
+ * Chunks run in read-only transactions and may be served by a replica; the re-check never is.
+ */
+@Component
+@Slf4j
+public class AggregateReconciliationJob {
+
+    enum Kind { HISTOGRAM, TREND, AVERAGE }
+
+    private record Drift(Map<Kind, Set<Long>> byKind) {
+        static Drift empty() {
+            Map<Kind, Set<Long>> byKind = new EnumMap<>(Kind.class);
+            for (Kind kind : Kind.values()) {
+                byKind.put(kind, ConcurrentHashMap.newKeySet());
+            }
+            return new Drift(byKind);
+        }
+
+        Set<Long> universities() {
+            Set<Long> all = new HashSet<>();
+            byKind.values().forEach(all::addAll);
+            return all;
+        }
+    }
+
+    // Пересчитанные по отзывам агрегаты одного университета
+    private static final class Totals {
+        final int[] counts = new int[UniversityRatingStats.SIZE];
+        // месяц -> [review_count, sum(rating), sum(facilities), ...]
+        final Map<LocalDate, long[]> buckets = new HashMap<>();
+
+        Totals add(Totals other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            other.buckets.forEach((month, bucket) -> buckets.merge(month, bucket, Totals::sum));
+            return this;
+        }
+
+        long reviews() {
+            return buckets.values().stream().mapToLong(bucket -> bucket[0]).sum();
+        }
+
+        // Как round(avg(r.rating), 1) в Postgres
+        double averageRating() {
+            long reviews = reviews();
+            if (reviews == 0) {
+                return 0;
+            }
+            long ratingSum = buckets.values().stream().mapToLong(bucket -> bucket[1]).sum();
+            return BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(reviews), 1, RoundingMode.HALF_UP).doubleValue();
+        }
+
+        static long[] sum(long[] a, long[] b) {
+            long[] result = a.clone();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += b[i];
+            }
+            return result;
+        }
+    }
+
+    private interface Chunk {
+        void run() throws SQLException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final RatingAggregator ratingAggregator;
+    private final UniversityAggregateService aggregateService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.ratings.reconciliation.threads:2}")
+    private int threads;
+
+    @Value("${application.ratings.reconciliation.review-chunk-size:50000}")
+    private int reviewChunkSize;
+
+    @Value("${application.ratings.reconciliation.university-chunk-size:2000}")
+    private int universityChunkSize;
+
+    @Value("${application.ratings.reconciliation.repair-batch-size:500}")
+    private int repairBatchSize;
+
+    @Value("${application.ratings.reconciliation.max-pool-usage:0.75}")
+    private double maxPoolUsage;
+
+    // Университеты с расхождением в прошлом запуске: чинятся, только если оно повторилось
+    private volatile Set<Long> previousDrift = Set.of();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger chunksDone = new AtomicInteger();
+    private final AtomicInteger chunksTotal = new AtomicInteger();
+    private final Map<Kind, AtomicInteger> lastDrift = new EnumMap<>(Kind.class);
+    private volatile ReconciliationStatus lastRun;
+
+    public AggregateReconciliationJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      RatingAggregator ratingAggregator, UniversityAggregateService aggregateService,
+                                      MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ratingAggregator = ratingAggregator;
+        this.aggregateService = aggregateService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("ratings.reconciliation.progress", this, AggregateReconciliationJob::progress)
+                .description("Share of chunks processed by the running reconciliation (1 when idle)")
+                .register(meterRegistry);
+        for (Kind kind : Kind.values()) {
+            AtomicInteger drift = new AtomicInteger();
+            lastDrift.put(kind, drift);
+            Gauge.builder("ratings.reconciliation.drift", drift, AtomicInteger::get)
+                    .description("Universities whose stored aggregate differed from the reviews in the last run")
+                    .tag("kind", kind.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.ratings.reconciliation.interval-ms:900000}",
+            initialDelayString = "${application.ratings.reconciliation.initial-delay-ms:120000}")
+    public void scheduled() {
+        run();
+    }
+
+    @Async
+    public void runAsync() {
+        run();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public ReconciliationStatus status() {
+        ReconciliationStatus last = lastRun;
+        return ReconciliationStatus.builder()
+                .running(running.get())
+                .chunksDone(chunksDone.get())
+                .chunksTotal(chunksTotal.get())
+                .lastStartedAt(last != null ? last.getLastStartedAt() : null)
+                .lastFinishedAt(last != null ? last.getLastFinishedAt() : null)
+                .lastDurationMs(last != null ? last.getLastDurationMs() : null)
+                .lastDrift(last != null ? last.getLastDrift() : null)
+                .lastRepaired(last != null ? last.getLastRepaired() : null)
+                .lastError(last != null ? last.getLastError() : null)
+                .build();
+    }
+
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Aggregate reconciliation is already running");
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ReconciliationStatus.ReconciliationStatusBuilder result = ReconciliationStatus.builder().lastStartedAt(startedAt);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), task -> {
+            Thread thread = new Thread(task, "aggregate-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Дельты, уже видимые в review, должны попасть и в хранимые агрегаты до сравнения
+            ratingAggregator.flush();
+            Drift candidates = scan(executor);
+            Set<Long> suspects = candidates.universities();
+
+            Drift confirmed = Drift.empty();
+            Set<Long> waiting = new HashSet<>();
+            int repaired = 0;
+            if (!suspects.isEmpty()) {
+                List<Long> ids = new ArrayList<>(suspects);
+                ids.sort(null);
+                for (int from = 0; from < ids.size(); from += repairBatchSize) {
+                    List<Long> batch = ids.subList(from, Math.min(ids.size(), from + repairBatchSize));
+                    Drift drift = ratingAggregator.readAfterFlush(() -> recheck(batch));
+                    drift.byKind().forEach((kind, set) -> confirmed.byKind().get(kind).addAll(set));
+                    Set<Long> repair = new HashSet<>();
+                    for (Long id : drift.universities()) {
+                        (previousDrift.contains(id) ? repair : waiting).add(id);
+                    }
+                    if (!repair.isEmpty()) {
+                        aggregateService.refresh(repair);
+                        repaired += repair.size();
+                    }
+                }
+            }
+            previousDrift = Set.copyOf(waiting);
+
+            Map<String, Integer> driftCounts = new HashMap<>();
+            confirmed.byKind().forEach((kind, set) -> {
+                lastDrift.get(kind).set(set.size());
+                driftCounts.put(kind.name().toLowerCase(), set.size());
+            });
+            meterRegistry.counter("ratings.reconciliation.repaired").increment(repaired);
+            result.lastDrift(driftCounts).lastRepaired(repaired);
+            if (repaired > 0) {
+                log.warn("Aggregate reconciliation repaired {} universities (drift {}, {} suspects on first pass, {} left for the next run)",
+                        repaired, driftCounts, suspects.size(), waiting.size());
+            } else if (!waiting.isEmpty()) {
+                log.info("Aggregate reconciliation found drift in {} universities, will repair if it is still there on the next run",
+                        waiting.size());
+            } else {
+                log.info("Aggregate reconciliation found no drift ({} suspects on first pass)", suspects.size());
+            }
+        } catch (RuntimeException e) {
+            result.lastError(e.getMessage());
+            log.warn("Aggregate reconciliation failed: {}", e.getMessage());
+        } finally {
+            executor.shutdownNow();
+            long nanos = sample.stop(meterRegistry.timer("ratings.reconciliation.duration"));
+            lastRun = result.lastFinishedAt(LocalDateTime.now()).lastDurationMs(nanos / 1_000_000).build();
+            running.set(false);
+        }
+    }
+
+    private double progress() {
+        int total = chunksTotal.get();
+        return !running.get() || total == 0 ? 1.0 : (double) chunksDone.get() / total;
+    }
+
+    // Первый проход: пересчёт по диапазонам id отзывов, затем сравнение по диапазонам id университетов
+    private Drift scan(ExecutorService executor) {
+        List<long[]> reviewRanges = ranges("review", reviewChunkSize);
+        List<long[]> universityRanges = ranges("university", universityChunkSize);
+        chunksDone.set(0);
+        chunksTotal.set(reviewRanges.size() + universityRanges.size());
+
+        Map<Long, Totals> expected = new ConcurrentHashMap<>();
+        List<Chunk> recompute = new ArrayList<>();
+        for (long[] range : reviewRanges) {
+            recompute.add(() -> recompute("r.id BETWEEN ? AND ?", new Object[]{range[0], range[1]})
+                    .forEach((id, totals) -> expected.merge(id, totals, Totals::add)));
+        }
+        runAll(executor, recompute);
+
+        Drift drift = Drift.empty();
+        List<Chunk> compare = new ArrayList<>();
+        for (long[] range : universityRanges) {
+            compare.add(() -> compare("BETWEEN ? AND ?", new Object[]{range[0], range[1]}, expected, drift));
+        }
+        runAll(executor, compare);
+        return drift;
+    }
+
+    // Повторная проверка подозрительных университетов на primary, после сброса дельт
+    private Drift recheck(List<Long> universityIds) {
+        String ids = SqlArrays.literal(universityIds.stream().mapToLong(Long::longValue).toArray());
+        Map<Long, Totals> expected = recompute("r.university_id = ANY(CAST(? AS bigint[]))", new Object[]{ids});
+        Drift drift = Drift.empty();
+        compare("= ANY(CAST(? AS bigint[]))", new Object[]{ids}, expected, drift);
+        return drift;
+    }
+
+    private void runAll(ExecutorService executor, List<Chunk> chunks) {
+        List<Future<?>> futures = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            futures.add(executor.submit(() -> {
+                awaitPoolHeadroom();
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try {
+                        chunk.run();
+                    } catch (SQLException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                chunksDone.incrementAndGet();
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Aggregate reconciliation interrupted");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Aggregate reconciliation chunk failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Ждём, пока у пулов соединений нет очереди и есть запас; пул analytics не учитываем
+    private void awaitPoolHeadroom() throws InterruptedException {
+        long backoff = 50;
+        while (poolBusy()) {
+            meterRegistry.counter("ratings.reconciliation.throttled").increment();
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, 2000);
+        }
+    }
+
+    private boolean poolBusy() {
+        for (Gauge pending : meterRegistry.find("hikaricp.connections.pending").gauges()) {
+            String pool = pending.getId().getTag("pool");
+            if ("analytics".equals(pool)) {
+                continue;
+            }
+            if (pending.value() > 0) {
+                return true;
+            }
+            Gauge active = meterRegistry.find("hikaricp.connections.active").tag("pool", pool).gauge();
+            Gauge max = meterRegistry.find("hikaricp.connections.max").tag("pool", pool).gauge();
+            if (active != null && max != null && max.value() > 0 && active.value() / max.value() >= maxPoolUsage) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // [from, to] включительно, по chunkSize значений id
+    private List<long[]> ranges(String table, int chunkSize) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT min(id) AS lo, max(id) AS hi FROM " + table);
+        List<long[]> ranges = new ArrayList<>();
+        if (bounds.get("lo") == null) {
+            return ranges;
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+        for (long from = lo; from <= hi; from += chunkSize) {
+            ranges.add(new long[]{from, Math.min(hi, from + chunkSize - 1)});
+        }
+        return ranges;
+    }
+
+    private Map<Long, Totals> recompute(String where, Object[] args) {
+        Map<Long, Totals> totals = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT r.university_id, CAST(date_trunc('month', r.created_at) AS date) AS period_start,
+                       count(*) AS review_count, %s AS sums, %s AS counts
+                FROM review r
+                WHERE %s
+                GROUP BY r.university_id, CAST(date_trunc('month', r.created_at) AS date)
+                """.formatted(RatingTrendBackfillJob.sumsSelectSql("r"), RatingStatsService.histogramSelectSql("r"), where),
+                rs -> {
+                    Totals university = totals.computeIfAbsent(rs.getLong("university_id"), id -> new Totals());
+                    long[] sums = longs(rs.getArray("sums"));
+                    long[] bucket = new long[sums.length + 1];
+                    bucket[0] = rs.getLong("review_count");
+                    System.arraycopy(sums, 0, bucket, 1, sums.length);
+                    university.buckets.merge(rs.getObject("period_start", LocalDate.class), bucket, Totals::sum);
+                    long[] counts = longs(rs.getArray("counts"));
+                    for (int i = 0; i < counts.length; i++) {
+                        university.counts[i] += (int) counts[i];
+                    }
+                }, args);
+        return totals;
+    }
+
+    // idCondition применяется к u.id и t.university_id
+    private void compare(String idCondition, Object[] args, Map<Long, Totals> expected, Drift drift) {
+        Map<Long, Map<LocalDate, long[]>> storedTrend = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT t.university_id, t.period_start, t.review_count, t.sums FROM university_rating_trend t WHERE t.university_id " + idCondition,
+                rs -> {
+                    long[] sums = longs(rs.getArray("sums"));
+                    long[] bucket = new long[sums.length + 1];
+                    bucket[0] = rs.getLong("review_count");
+                    System.arraycopy(sums, 0, bucket, 1, sums.length);
+                    storedTrend.computeIfAbsent(rs.getLong("university_id"), id -> new HashMap<>())
+                            .put(rs.getObject("period_start", LocalDate.class), bucket);
+                }, args);
+
+        Totals none = new Totals();
+        jdbcTemplate.query("""
+                SELECT u.id, u.average_rating, s.counts
+                FROM university u LEFT JOIN university_rating_stats s ON s.university_id = u.id
+                WHERE u.id %s
+                """.formatted(idCondition),
+                rs -> {
+                    long id = rs.getLong("id");
+                    Totals university = expected.getOrDefault(id, none);
+
+                    long[] counts = longs(rs.getArray("counts"));
+                    long[] expectedCounts = Arrays.stream(university.counts).asLongStream().toArray();
+                    if (!Arrays.equals(counts.length == 0 ? new long[UniversityRatingStats.SIZE] : counts, expectedCounts)) {
+                        drift.byKind().get(Kind.HISTOGRAM).add(id);
+                    }
+
+                    double average = rs.getDouble("average_rating");
+                    if (rs.wasNull() || average != university.averageRating()) {
+                        drift.byKind().get(Kind.AVERAGE).add(id);
+                    }
+
+                    if (!sameTrend(storedTrend.getOrDefault(id, Map.of()), university.buckets)) {
+                        drift.byKind().get(Kind.TREND).add(id);
+                    }
+                }, args);
+    }
+
+    // Пустые бакеты (все отзывы месяца удалены) расхождением не считаются
+    private static boolean sameTrend(Map<LocalDate, long[]> stored, Map<LocalDate, long[]> expected) {
+        for (Map.Entry<LocalDate, long[]> bucket : expected.entrySet()) {
+            if (!Arrays.equals(stored.get(bucket.getKey()), bucket.getValue())) {
+                return false;
+            }
+        }
+        for (Map.Entry<LocalDate, long[]> bucket : stored.entrySet()) {
+            if (!expected.containsKey(bucket.getKey()) && bucket.getValue()[0] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] longs(Array array) throws SQLException {
+        if (array == null) {
+            return new long[0];
+        }
+        Object[] values = (Object[]) array.getArray();
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = ((Number) values[i]).longValue();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,190 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.config.CircuitBreaker;
+import dev.mathalama.backend.domain.PasswordResetTokenRedis;
+import dev.mathalama.backend.domain.UserRedis;
+import dev.mathalama.backend.repository.PasswordResetTokenRepository;
+import dev.mathalama.backend.repository.UserRedisRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisHash;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Unverified registrations and password reset tokens, stored in Redis behind a circuit breaker.
+ * <p>
+ * While the circuit is open (Redis failing or timing out) reads and writes go to a bounded local
+ * store that honours the same TTLs, so registration, verification and password reset keep working
+ * on this node without waiting for Redis timeouts. Lookups always consult the local store as well,
+ * and its contents (including deletes) are replayed to Redis with their remaining TTL once Redis
+ * answers again. Tokens issued by this node during an outage are only visible to other nodes after
+ * that replay.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthTokenStore {
+
+    private final UserRedisRepository userRedisRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.redis.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${application.redis.circuit.open-duration:10s}")
+    private Duration openDuration;
+
+    @Value("${application.redis.fallback.capacity:10000}")
+    private int fallbackCapacity;
+
+    private CircuitBreaker breaker;
+    private Keyspace<UserRedis> unverifiedUsers;
+    private Keyspace<PasswordResetTokenRedis> resetTokens;
+
+    @PostConstruct
+    void init() {
+        breaker = new CircuitBreaker("auth-redis", failureThreshold, openDuration);
+        unverifiedUsers = new Keyspace<>(UserRedis.class, userRedisRepository, userRedisRepository::findByEmail,
+                UserRedis::getToken, UserRedis::getEmail, UserRedis::setTimeToLive);
+        resetTokens = new Keyspace<>(PasswordResetTokenRedis.class, passwordResetTokenRepository,
+                passwordResetTokenRepository::findByEmail,
+                PasswordResetTokenRedis::getToken, PasswordResetTokenRedis::getEmail, PasswordResetTokenRedis::setTimeToLive);
+
+        meterRegistry.gauge("redis.circuit.state", io.micrometer.core.instrument.Tags.of("name", "auth-redis"),
+                breaker, b -> b.getState().ordinal());
+        meterRegistry.gauge("auth.fallback.pending", this,
+                store -> store.unverifiedUsers.local.size() + store.resetTokens.local.size());
+    }
+
+    public Optional<UserRedis> findUnverifiedUser(String token) {
+        return unverifiedUsers.findById(token);
+    }
+
+    public Optional<UserRedis> findUnverifiedUserByEmail(String email) {
+        return unverifiedUsers.findByEmail(email);
+    }
+
+    public void saveUnverifiedUser(UserRedis user) {
+        unverifiedUsers.save(user);
+    }
+
+    public void deleteUnverifiedUser(UserRedis user) {
+        unverifiedUsers.delete(user);
+    }
+
+    public Optional<PasswordResetTokenRedis> findResetToken(String token) {
+        return resetTokens.findById(token);
+    }
+
+    public Optional<PasswordResetTokenRedis> findResetTokenByEmail(String email) {
+        return resetTokens.findByEmail(email);
+    }
+
+    public void saveResetToken(PasswordResetTokenRedis token) {
+        resetTokens.save(token);
+    }
+
+    public void deleteResetToken(PasswordResetTokenRedis token) {
+        resetTokens.delete(token);
+    }
+
+    // Пока локальное хранилище пустое, в Redis не ходим; иначе первая же запись служит пробой для breaker'а
+    @Scheduled(fixedDelayString = "${application.redis.fallback.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        int replayed = unverifiedUsers.replay() + resetTokens.replay();
+        if (replayed > 0) {
+            log.info("Replayed {} locally stored auth tokens to Redis", replayed);
+        }
+    }
+
+    private final class Keyspace<T> {
+
+        private final CrudRepository<T, String> repository;
+        private final Function<String, Optional<T>> redisFindByEmail;
+        private final Function<T, String> id;
+        private final Function<T, String> email;
+        private final BiConsumer<T, Long> timeToLive;
+        private final Duration ttl;
+        private final LocalExpiringStore<T> local;
+
+        Keyspace(Class<T> type, CrudRepository<T, String> repository, Function<String, Optional<T>> redisFindByEmail,
+                 Function<T, String> id, Function<T, String> email, BiConsumer<T, Long> timeToLive) {
+            this.repository = repository;
+            this.redisFindByEmail = redisFindByEmail;
+            this.id = id;
+            this.email = email;
+            this.timeToLive = timeToLive;
+            this.ttl = Duration.ofSeconds(type.getAnnotation(RedisHash.class).timeToLive());
+            this.local = new LocalExpiringStore<>(fallbackCapacity);
+        }
+
+        Optional<T> findById(String key) {
+            return breaker.call(() -> repository.findById(key).filter(value -> !local.isDeleted(key)), Optional::<T>empty)
+                    .or(() -> local.findById(key));
+        }
+
+        Optional<T> findByEmail(String address) {
+            return breaker.call(() -> redisFindByEmail.apply(address).filter(value -> !local.isDeleted(id.apply(value))),
+                            Optional::<T>empty)
+                    .or(() -> local.findByEmail(address));
+        }
+
+        void save(T value) {
+            breaker.run(() -> repository.save(value), () -> local.put(id.apply(value), email.apply(value), value, ttl));
+        }
+
+        void delete(T value) {
+            String key = id.apply(value);
+            local.discard(key);
+            breaker.run(() -> repository.deleteById(key), () -> local.delete(key, ttl));
+        }
+
+        int replay() {
+            if (local.isEmpty()) {
+                return 0;
+            }
+            int replayed = 0;
+            long now = System.currentTimeMillis();
+            for (LocalExpiringStore.Entry<T> entry : local.pendingEntries()) {
+                T value = entry.value();
+                timeToLive.accept(value, Math.max(1, entry.remaining(now).toSeconds()));
+                boolean saved = breaker.call(() -> {
+                    // Пока Redis лежал, на тот же email могла появиться вторая запись; побеждает локальная
+                    redisFindByEmail.apply(entry.email())
+                            .filter(existing -> !entry.id().equals(id.apply(existing)))
+                            .ifPresent(repository::delete);
+                    repository.save(value);
+                    return true;
+                }, () -> false);
+                if (!saved) {
+                    return replayed;
+                }
+                local.removeReplayed(entry);
+                replayed++;
+            }
+            for (String key : local.pendingDeletes()) {
+                boolean deleted = breaker.call(() -> {
+                    repository.deleteById(key);
+                    return true;
+                }, () -> false);
+                if (!deleted) {
+                    return replayed;
+                }
+                local.removeReplayedDelete(key);
+                replayed++;
+            }
+            return replayed;
+        }
+    }
+}
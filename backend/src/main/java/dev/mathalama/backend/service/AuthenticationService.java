@@ -1,17 +1,18 @@
 package dev.mathalama.backend.service;
 
 import dev.mathalama.backend.config.JwtService;
+import dev.mathalama.backend.config.TokenRevocationService;
 import dev.mathalama.backend.domain.PasswordResetTokenRedis;
 import dev.mathalama.backend.domain.Role;
 import dev.mathalama.backend.domain.User;
 import dev.mathalama.backend.domain.UserRedis;
-import dev.mathalama.backend.repository.PasswordResetTokenRepository;
 import dev.mathalama.backend.repository.UserRepository;
-import dev.mathalama.backend.repository.UserRedisRepository;
 import dev.mathalama.backend.validation.EmailDomainValidator;
 import dev.mathalama.backend.web.dto.AuthenticationRequest;
 import dev.mathalama.backend.web.dto.AuthenticationResponse;
 import dev.mathalama.backend.web.dto.RegisterRequest;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,19 +21,22 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.UUID;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class AuthenticationService {
 
     private final UserRepository repository;
-    private final UserRedisRepository userRedisRepository;
-    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final AuthTokenStore authTokenStore;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final EmailDomainValidator emailValidator;
@@ -51,7 +55,7 @@ public class AuthenticationService {
         }
         
         // Check if user exists in Redis (unverified)
-        if (userRedisRepository.findByEmail(request.getEmail()).isPresent()) {
+        if (authTokenStore.findUnverifiedUserByEmail(request.getEmail()).isPresent()) {
             throw new RuntimeException("A verification email has already been sent to this address. Please check your inbox.");
         }
 
@@ -72,7 +76,7 @@ public class AuthenticationService {
                 .role(role)
                 .build();
         
-        userRedisRepository.save(unverifiedUser);
+        authTokenStore.saveUnverifiedUser(unverifiedUser);
 
         // Send email
         String verificationLink = baseUrl + "/api/v1/auth/verify?token=" + token;
@@ -109,7 +113,7 @@ public class AuthenticationService {
     @Transactional
     public String verifyToken(String token) {
         // Find user in Redis
-        UserRedis unverifiedUser = userRedisRepository.findById(token)
+        UserRedis unverifiedUser = authTokenStore.findUnverifiedUser(token)
                 .orElseThrow(() -> new RuntimeException("Invalid or expired token"));
 
         // Create and save user to main DB
@@ -125,18 +129,18 @@ public class AuthenticationService {
         repository.save(user);
         
         // Remove from Redis
-        userRedisRepository.delete(unverifiedUser);
+        authTokenStore.deleteUnverifiedUser(unverifiedUser);
 
         return "Email verified successfully! You can now login.";
     }
 
     @Transactional
     public void resendVerification(String email) {
-        var oldUserRedis = userRedisRepository.findByEmail(email)
+        var oldUserRedis = authTokenStore.findUnverifiedUserByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found or already verified"));
 
         // Delete old token
-        userRedisRepository.delete(oldUserRedis);
+        authTokenStore.deleteUnverifiedUser(oldUserRedis);
 
         // Generate new token
         String newToken = UUID.randomUUID().toString();
@@ -151,7 +155,7 @@ public class AuthenticationService {
                 .role(oldUserRedis.getRole())
                 .build();
 
-        userRedisRepository.save(newUserRedis);
+        authTokenStore.saveUnverifiedUser(newUserRedis);
 
         // Send email
         String verificationLink = baseUrl + "/api/v1/auth/verify?token=" + newToken;
@@ -170,7 +174,7 @@ public class AuthenticationService {
         }
 
         // Clean up any existing tokens
-        passwordResetTokenRepository.findByEmail(email).ifPresent(passwordResetTokenRepository::delete);
+        authTokenStore.findResetTokenByEmail(email).ifPresent(authTokenStore::deleteResetToken);
 
         String token = UUID.randomUUID().toString();
         var resetToken = PasswordResetTokenRedis.builder()
@@ -178,7 +182,7 @@ public class AuthenticationService {
                 .email(email)
                 .build();
         
-        passwordResetTokenRepository.save(resetToken);
+        authTokenStore.saveResetToken(resetToken);
 
         String resetLink = "https://university.mathalama.dev/reset-password?token=" + token;
         java.util.concurrent.CompletableFuture.runAsync(() -> 
@@ -188,7 +192,7 @@ public class AuthenticationService {
 
     @Transactional
     public void resetPassword(String token, String newPassword) {
-        var resetToken = passwordResetTokenRepository.findById(token)
+        var resetToken = authTokenStore.findResetToken(token)
                 .orElseThrow(() -> new RuntimeException("Invalid or expired password reset token"));
 
         var user = repository.findByEmail(resetToken.getEmail())
@@ -197,6 +201,25 @@ public class AuthenticationService {
         user.setPassword(passwordEncoder.encode(newPassword));
         repository.save(user);
 
-        passwordResetTokenRepository.delete(resetToken);
+        // Токен сброса гасится и старые сессии (в том числе у того, кто мог узнать прежний пароль)
+        // отзываются только после коммита нового пароля; оба вызова идут через circuit breaker
+        String email = user.getEmail();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                authTokenStore.deleteResetToken(resetToken);
+                tokenRevocationService.revokeAll(email);
+            }
+        });
+    }
+
+    public void logout(String jwt) {
+        Claims claims = jwtService.extractAllClaims(jwt);
+        if (claims.getId() == null) {
+            // Токен выдан до появления jti и по одному не отзывается: отзываем все токены пользователя
+            tokenRevocationService.revokeAll(claims.getSubject());
+            return;
+        }
+        tokenRevocationService.revokeToken(claims);
     }
 }
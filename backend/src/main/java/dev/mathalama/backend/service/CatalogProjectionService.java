@@ -0,0 +1,195 @@
+package dev.mathalama.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets ({@code ?fields=name,averageRating}) for the university and review read endpoints.
+ * <p>
+ * Only the requested columns are selected (plus {@code id}, always present) and each row becomes a map
+ * with exactly those keys, named and formatted like {@code UniversityResponse} / {@code ReviewResponse}.
+ * Derived fields cost extra work only when asked for: university {@code tags} need one more query over
+ * review tags, review {@code userName} / {@code universityName} add the corresponding join.
+ */
+@Service
+@Timed("service.method")
+@RequiredArgsConstructor
+public class CatalogProjectionService {
+
+    private interface ColumnReader {
+        Object read(ResultSet rs) throws SQLException;
+    }
+
+    private record Column(String select, String join, ColumnReader reader) {
+        // "u.logo_url" читается по метке "logo_url"
+        static Column of(String select) {
+            String label = select.substring(select.indexOf('.') + 1);
+            return new Column(select, null, rs -> rs.getObject(label));
+        }
+    }
+
+    private static final String TAGS = "tags";
+
+    // Ключи — имена полей DTO, значения — только из этого списка попадают в SQL
+    private static final Map<String, Column> UNIVERSITY_COLUMNS = Map.of(
+            "name", Column.of("u.name"),
+            "country", Column.of("u.country"),
+            "city", Column.of("u.city"),
+            "description", Column.of("u.description"),
+            "website", Column.of("u.website"),
+            "logoUrl", Column.of("u.logo_url"),
+            "averageRating", Column.of("u.average_rating"));
+
+    private static final Map<String, Column> REVIEW_COLUMNS = Map.ofEntries(
+            Map.entry("text", Column.of("r.text")),
+            Map.entry("rating", Column.of("r.rating")),
+            Map.entry("facilities", Column.of("r.facilities")),
+            Map.entry("opportunities", Column.of("r.opportunities")),
+            Map.entry("location", Column.of("r.location")),
+            Map.entry("internet", Column.of("r.internet")),
+            Map.entry("food", Column.of("r.food")),
+            Map.entry("difficulty", Column.of("r.difficulty")),
+            Map.entry("status", Column.of("r.status")),
+            Map.entry("tags", new Column("r.tags", null, rs -> {
+                String tags = rs.getString("tags");
+                return tags != null && !tags.isEmpty() ? Arrays.asList(tags.split(",")) : List.of();
+            })),
+            Map.entry("userName", new Column("usr.firstname, usr.lastname, usr.email, usr.id AS user_present",
+                    "LEFT JOIN _user usr ON usr.id = r.user_id", rs -> {
+                if (rs.getObject("user_present") == null) {
+                    return "Anonymous";
+                }
+                return ReviewService.displayName(rs.getString("firstname"), rs.getString("lastname"), rs.getString("email"));
+            })),
+            Map.entry("userId", Column.of("r.user_id")),
+            Map.entry("universityId", Column.of("r.university_id")),
+            Map.entry("universityName", new Column("uni.name AS university_name",
+                    "LEFT JOIN university uni ON uni.id = r.university_id", rs -> {
+                String name = rs.getString("university_name");
+                return name != null ? name : "Unknown University";
+            })),
+            Map.entry("createdAt", new Column("r.created_at", null, rs -> rs.getObject("created_at", LocalDateTime.class))));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static Set<String> parseFields(String fields) {
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    // ids == null — весь каталог
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUniversities(Set<String> fields, Collection<Long> ids) {
+        if (ids != null) {
+            ids = UniversityService.requireBatch(List.copyOf(ids));
+        }
+        boolean withTags = fields.contains(TAGS);
+        Map<String, Column> columns = select(fields, UNIVERSITY_COLUMNS, Set.of(TAGS));
+        String where = ids == null ? "" : " WHERE u.id = ANY (CAST(? AS bigint[]))";
+        Object[] args = ids == null ? new Object[0] : new Object[]{idsLiteral(ids)};
+        List<Map<String, Object>> rows = query("university u", columns, where + " ORDER BY u.id", args);
+
+        if (withTags) {
+            Map<Long, List<String>> tags = universityTags(ids);
+            for (Map<String, Object> row : rows) {
+                row.put(TAGS, tags.getOrDefault((Long) row.get("id"), List.of()));
+            }
+        }
+        if (ids != null) {
+            // Порядок — как в запросе
+            Map<Object, Map<String, Object>> byId = rows.stream()
+                    .collect(Collectors.toMap(row -> row.get("id"), Function.identity()));
+            return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        }
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUniversity(Long id, Set<String> fields) {
+        List<Map<String, Object>> rows = getUniversities(fields, List.of(id));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("University not found");
+        }
+        return rows.get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getReviewsByUniversity(Long universityId, Set<String> fields) {
+        Map<String, Column> columns = select(fields, REVIEW_COLUMNS, Set.of());
+        return query("review r", columns, " WHERE r.university_id = ? ORDER BY r.id", new Object[]{universityId});
+    }
+
+    private List<Map<String, Object>> query(String from, Map<String, Column> columns, String tail, Object[] args) {
+        String alias = from.substring(from.indexOf(' ') + 1);
+        StringBuilder sql = new StringBuilder("SELECT ").append(alias).append(".id");
+        columns.values().forEach(column -> sql.append(", ").append(column.select()));
+        sql.append(" FROM ").append(from);
+        columns.values().stream().map(Column::join).filter(Objects::nonNull).forEach(join -> sql.append(' ').append(join));
+        sql.append(tail);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", rs.getLong("id"));
+            for (Map.Entry<String, Column> column : columns.entrySet()) {
+                row.put(column.getKey(), column.getValue().reader().read(rs));
+            }
+            return row;
+        }, args);
+    }
+
+    // Те же теги, что в UniversityResponse, но из одной колонки вместо загрузки отзывов целиком
+    private Map<Long, List<String>> universityTags(Collection<Long> ids) {
+        String where = ids == null ? "" : " AND university_id = ANY (CAST(? AS bigint[]))";
+        Object[] args = ids == null ? new Object[0] : new Object[]{idsLiteral(ids)};
+        Map<Long, List<String>> raw = new HashMap<>();
+        jdbcTemplate.query("SELECT university_id, tags FROM review WHERE tags <> ''" + where + " ORDER BY id",
+                rs -> {
+                    raw.computeIfAbsent(rs.getLong("university_id"), key -> new ArrayList<>()).add(rs.getString("tags"));
+                }, args);
+        Map<Long, List<String>> tags = new HashMap<>();
+        raw.forEach((universityId, reviewTags) -> tags.put(universityId, UniversityService.tagsOf(reviewTags.stream())));
+        return tags;
+    }
+
+    private static Map<String, Column> select(Set<String> fields, Map<String, Column> available, Set<String> derived) {
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for (String field : fields) {
+            if ("id".equals(field) || derived.contains(field)) {
+                continue;
+            }
+            Column column = available.get(field);
+            if (column == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + field);
+            }
+            columns.put(field, column);
+        }
+        return columns;
+    }
+
+    private static String idsLiteral(Collection<Long> ids) {
+        return SqlArrays.literal(ids.stream().mapToLong(Long::longValue).toArray());
+    }
+}
@@ -2,6 +2,8 @@ package dev.mathalama.backend.service;
 
 import com.resend.Resend;
 import com.resend.services.emails.model.CreateEmailOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Service;
 public class EmailService {
 
     private final Resend resend;
+    private final MeterRegistry meterRegistry;
 
     @Async
     public void sendVerificationEmail(String to, String verificationLink) {
@@ -38,10 +41,13 @@ public class EmailService {
                 .html(htmlContent)
                 .build();
 
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             resend.emails().send(params);
+            sample.stop(resendTimer("verification", "success"));
             log.info("Verification email sent to {}", to);
         } catch (Exception e) {
+            sample.stop(resendTimer("verification", "error"));
             log.error("Failed to send email to {}", to, e);
             throw new RuntimeException("Failed to send verification email");
         }
@@ -71,12 +77,23 @@ public class EmailService {
                 .html(htmlContent)
                 .build();
 
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             resend.emails().send(params);
+            sample.stop(resendTimer("password_reset", "success"));
             log.info("Password reset email sent to {}", to);
         } catch (Exception e) {
+            sample.stop(resendTimer("password_reset", "error"));
             log.error("Failed to send reset email to {}", to, e);
             // We usually don't throw here to avoid leaking info about email existence, but logging is key
         }
     }
+
+    private Timer resendTimer(String type, String outcome) {
+        return Timer.builder("resend.requests")
+                .description("Latency of Resend API calls")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
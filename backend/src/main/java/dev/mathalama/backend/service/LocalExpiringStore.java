@@ -0,0 +1,128 @@
+package dev.mathalama.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory stand-in for a Redis keyspace while Redis is unavailable: entries by id with an
+ * email index and a per-entry expiry, plus tombstones for ids deleted locally that may still exist
+ * in Redis. Oldest entries are evicted beyond {@code capacity}. Contents are replayed to Redis by the
+ * owner and removed with {@link #removeReplayed}.
+ */
+class LocalExpiringStore<T> {
+
+    record Entry<T>(String id, String email, T value, long expiresAtMillis) {
+        Duration remaining(long now) {
+            return Duration.ofMillis(expiresAtMillis - now);
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>();
+    private final Map<String, String> idsByEmail = new HashMap<>();
+    private final LinkedHashMap<String, Long> tombstones = new LinkedHashMap<>();
+
+    LocalExpiringStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void put(String id, String email, T value, Duration ttl) {
+        long now = System.currentTimeMillis();
+        remove(id);
+        if (entries.size() >= capacity) {
+            purgeExpired(now);
+        }
+        entries.put(id, new Entry<>(id, email, value, now + ttl.toMillis()));
+        idsByEmail.put(email, id);
+        tombstones.remove(id);
+        while (entries.size() > capacity) {
+            remove(entries.keySet().iterator().next());
+        }
+    }
+
+    synchronized Optional<T> findById(String id) {
+        Entry<T> entry = entries.get(id);
+        if (entry == null || entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    synchronized Optional<T> findByEmail(String email) {
+        String id = idsByEmail.get(email);
+        return id != null ? findById(id) : Optional.empty();
+    }
+
+    synchronized void discard(String id) {
+        remove(id);
+    }
+
+    synchronized void delete(String id, Duration tombstoneTtl) {
+        remove(id);
+        tombstones.put(id, System.currentTimeMillis() + tombstoneTtl.toMillis());
+        while (tombstones.size() > capacity) {
+            Iterator<String> eldest = tombstones.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    synchronized boolean isDeleted(String id) {
+        Long until = tombstones.get(id);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    synchronized boolean isEmpty() {
+        purgeExpired(System.currentTimeMillis());
+        return entries.isEmpty() && tombstones.isEmpty();
+    }
+
+    synchronized List<Entry<T>> pendingEntries() {
+        purgeExpired(System.currentTimeMillis());
+        return new ArrayList<>(entries.values());
+    }
+
+    synchronized List<String> pendingDeletes() {
+        purgeExpired(System.currentTimeMillis());
+        return new ArrayList<>(tombstones.keySet());
+    }
+
+    // Удаляем только то, что реплицировали: запись могли заменить или удалить, пока шла запись в Redis
+    synchronized void removeReplayed(Entry<T> entry) {
+        if (entries.get(entry.id()) == entry) {
+            remove(entry.id());
+        }
+    }
+
+    synchronized void removeReplayedDelete(String id) {
+        tombstones.remove(id);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void remove(String id) {
+        Entry<T> old = entries.remove(id);
+        if (old != null) {
+            idsByEmail.remove(old.email(), id);
+        }
+    }
+
+    private void purgeExpired(long now) {
+        entries.values().removeIf(entry -> {
+            if (entry.expiresAtMillis() > now) {
+                return false;
+            }
+            idsByEmail.remove(entry.email(), entry.id());
+            return true;
+        });
+        tombstones.values().removeIf(until -> until <= now);
+    }
+}
@@ -0,0 +1,240 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.ReviewDimension;
+import dev.mathalama.backend.domain.UniversityRatingStats;
+import dev.mathalama.backend.event.RatingAggregatesChangedEvent;
+import dev.mathalama.backend.repository.UniversityRatingStatsRepository;
+import dev.mathalama.backend.repository.UniversityRatingTrendRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Rating aggregates (histogram, monthly trend, University.averageRating) without a write on the
+ * university row per review. Review writes only add their delta to an in-memory striped
+ * accumulator after commit; a single flusher applies the summed deltas as additive upserts and
+ * derives averageRating from the histogram, so concurrent reviews can neither overwrite each other
+ * nor queue on the same row lock. Deltas that have not been flushed yet are lost on a crash
+ * (not on a normal shutdown); {@link AggregateReconciliationJob} detects and repairs that drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregator {
+
+    // Дольше flush не длится даже на больших пачках; иначе лучше отказать, чем держать транзакцию
+    private static final long FLUSH_LOCK_TIMEOUT_SECONDS = 30;
+
+    private final UniversityRatingStatsRepository statsRepository;
+    private final UniversityRatingTrendRepository trendRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final StripedRatingAccumulator accumulator =
+            new StripedRatingAccumulator(4 * Runtime.getRuntime().availableProcessors());
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("ratings.pending.universities", accumulator, StripedRatingAccumulator::pendingUniversities)
+                .description("Universities with rating deltas not yet flushed to the database")
+                .register(meterRegistry);
+    }
+
+    // sign = +1 при добавлении отзыва, -1 при удалении; дельта учитывается только после коммита
+    public void record(Review review, int sign) {
+        Long universityId = review.getUniversity().getId();
+        LocalDate periodStart = RatingTrendService.periodStart(review.getCreatedAt().toLocalDate());
+        int[] counts = new int[UniversityRatingStats.SIZE];
+        long[] bucket = new long[StripedRatingAccumulator.BUCKET_SIZE];
+        bucket[0] = sign;
+        for (ReviewDimension dimension : ReviewDimension.values()) {
+            int score = dimension.scoreOf(review);
+            if (ReviewDimension.isValidScore(score)) {
+                counts[UniversityRatingStats.slot(dimension, score)] = sign;
+            }
+            bucket[1 + dimension.ordinal()] = (long) sign * score;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulator.add(universityId, counts, periodStart, bucket);
+                }
+            });
+        } else {
+            accumulator.add(universityId, counts, periodStart, bucket);
+        }
+    }
+
+    /**
+     * Stops flushes on this node until the current transaction completes. Called first by a
+     * from-scratch recompute ({@link UniversityAggregateService}), before it takes any row lock, so a
+     * flush can neither add deltas on top of the recomputed rows nor wait on them while holding the lock.
+     */
+    void suspendFlushesUntilCompletion() {
+        lockFlushes();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                flushLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Takes the pending deltas of these universities out of the accumulator: their reviews are already
+     * committed and will be counted by the recompute. The deltas are dropped for good only if the
+     * recompute commits; on rollback they go back to the accumulator.
+     */
+    void discardAfterCommit(Collection<Long> universityIds) {
+        Map<Long, StripedRatingAccumulator.Pending> held = accumulator.discard(universityIds);
+        if (held.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    accumulator.restore(held);
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies the pending deltas and runs {@code read} before another flush can start. The
+     * re-check of {@link AggregateReconciliationJob} compares stored aggregates with the review table
+     * this way, so a flush landing between its two reads cannot show up as drift.
+     */
+    <T> T readAfterFlush(Supplier<T> read) {
+        lockFlushes();
+        try {
+            flushLocked();
+            return read.get();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.ratings.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        int left = accumulator.pendingUniversities();
+        if (left > 0) {
+            log.warn("Shutting down with unflushed rating deltas for {} universities", left);
+        }
+    }
+
+    private void lockFlushes() {
+        try {
+            if (!flushLock.tryLock(FLUSH_LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Rating flush is still running, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the rating flush");
+        }
+    }
+
+    private void flushLocked() {
+        TreeMap<Long, StripedRatingAccumulator.Pending> batch = accumulator.drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            accumulator.restore(batch);
+            log.warn("Rating flush failed for {} universities, will retry: {}", batch.size(), e.getMessage());
+            return;
+        }
+        eventPublisher.publishEvent(new RatingAggregatesChangedEvent(Set.copyOf(batch.keySet())));
+    }
+
+    private void write(TreeMap<Long, StripedRatingAccumulator.Pending> batch) {
+        // Дельты удалённых за это время университетов выбрасываем, иначе upsert упадёт на внешнем ключе
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM university WHERE id = ANY(CAST(? AS bigint[]))", Long.class, idsLiteral(batch.keySet())));
+
+        for (Map.Entry<Long, StripedRatingAccumulator.Pending> entry : batch.entrySet()) {
+            Long universityId = entry.getKey();
+            if (!existing.contains(universityId)) {
+                continue;
+            }
+            StripedRatingAccumulator.Pending pending = entry.getValue();
+            if (Arrays.stream(pending.counts).anyMatch(c -> c != 0)) {
+                statsRepository.addCounts(universityId, SqlArrays.literal(pending.counts));
+            }
+            for (Map.Entry<LocalDate, long[]> bucket : new TreeMap<>(pending.buckets).entrySet()) {
+                long[] delta = bucket.getValue();
+                if (Arrays.stream(delta).allMatch(v -> v == 0)) {
+                    continue;
+                }
+                trendRepository.addBucket(universityId, bucket.getKey(), (int) delta[0],
+                        SqlArrays.literal(Arrays.copyOfRange(delta, 1, delta.length)));
+            }
+        }
+        if (!existing.isEmpty()) {
+            jdbcTemplate.update("UPDATE university u SET average_rating = " + averageFromStatsSql("s")
+                    + " FROM university_rating_stats s WHERE s.university_id = u.id AND u.id = ANY(CAST(? AS bigint[]))",
+                    idsLiteral(existing));
+        }
+    }
+
+    private static String idsLiteral(Set<Long> ids) {
+        return SqlArrays.literal(ids.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    // Среднее по гистограмме общей оценки, округлённое до 1 знака (0, если отзывов нет)
+    static String averageFromStatsSql(String alias) {
+        StringBuilder weighted = new StringBuilder();
+        StringBuilder total = new StringBuilder();
+        for (int score = ReviewDimension.MIN_SCORE; score <= ReviewDimension.MAX_SCORE; score++) {
+            // массивы в Postgres нумеруются с 1
+            String slot = alias + ".counts[" + (UniversityRatingStats.slot(ReviewDimension.RATING, score) + 1) + "]";
+            if (score > ReviewDimension.MIN_SCORE) {
+                weighted.append(" + ");
+                total.append(" + ");
+            }
+            weighted.append(slot).append(" * ").append(score);
+            total.append(slot);
+        }
+        return "coalesce(round(CAST(" + weighted + " AS numeric) / nullif(" + total + ", 0), 1), 0)";
+    }
+}
@@ -0,0 +1,159 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.domain.UniversityRatingStats;
+import dev.mathalama.backend.repository.UniversityRatingStatsRepository;
+import dev.mathalama.backend.repository.UniversityRepository;
+import dev.mathalama.backend.web.dto.UniversityComparison;
+import dev.mathalama.backend.web.dto.UniversityStatsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class RatingStatsService {
+
+    private static final int TOP_TAGS = 10;
+
+    private final UniversityRatingStatsRepository statsRepository;
+    private final UniversityRepository universityRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public UniversityStatsResponse getStats(Long universityId) {
+        int[] counts = statsRepository.findById(universityId)
+                .map(UniversityRatingStats::getCounts)
+                .orElse(null);
+        if (counts == null) {
+            if (!universityRepository.existsById(universityId)) {
+                throw new RuntimeException("University not found");
+            }
+            counts = new int[UniversityRatingStats.SIZE];
+        }
+
+        Map<String, UniversityStatsResponse.DimensionStats> dimensions = new LinkedHashMap<>();
+        long reviewCount = 0;
+        for (ReviewDimension dimension : ReviewDimension.values()) {
+            int[] histogram = histogram(counts, dimension);
+            if (dimension == ReviewDimension.RATING) {
+                reviewCount = total(histogram);
+            }
+            dimensions.put(dimension.column(), UniversityStatsResponse.DimensionStats.builder()
+                    .histogram(histogram)
+                    .average(average(histogram))
+                    .build());
+        }
+
+        return UniversityStatsResponse.builder()
+                .universityId(universityId)
+                .reviewCount(reviewCount)
+                .dimensions(dimensions)
+                .build();
+    }
+
+    /**
+     * Side-by-side comparison of up to {@link UniversityService#MAX_BATCH} universities in three queries
+     * whatever their number: universities, their histogram rows and tag frequencies. Unknown ids are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<UniversityComparison> compare(List<Long> ids) {
+        List<Long> distinct = UniversityService.requireBatch(ids);
+        Map<Long, University> universities = universityRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(University::getId, Function.identity()));
+        Map<Long, int[]> counts = statsRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(UniversityRatingStats::getUniversityId, UniversityRatingStats::getCounts));
+        Map<Long, List<String>> tags = topTags(distinct);
+
+        List<UniversityComparison> result = new ArrayList<>(distinct.size());
+        for (Long id : distinct) {
+            University university = universities.get(id);
+            if (university == null) {
+                continue;
+            }
+            int[] universityCounts = counts.getOrDefault(id, new int[UniversityRatingStats.SIZE]);
+            Map<String, Double> averages = new LinkedHashMap<>();
+            for (ReviewDimension dimension : ReviewDimension.values()) {
+                averages.put(dimension.column(), average(histogram(universityCounts, dimension)));
+            }
+            result.add(UniversityComparison.builder()
+                    .id(id)
+                    .name(university.getName())
+                    .country(university.getCountry())
+                    .city(university.getCity())
+                    .averageRating(university.getAverageRating())
+                    .reviewCount(total(histogram(universityCounts, ReviewDimension.RATING)))
+                    .averages(averages)
+                    .topTags(tags.getOrDefault(id, List.of()))
+                    .build());
+        }
+        return result;
+    }
+
+    // Частоты тегов ведёт проекция журнала событий (UniversityTagStatsProjection) с отставанием
+    // около секунды, поэтому отзывы университетов здесь не разворачиваются
+    private Map<Long, List<String>> topTags(List<Long> ids) {
+        Map<Long, List<String>> tags = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT university_id, tag
+                FROM university_tag_stats
+                WHERE university_id = ANY (CAST(? AS bigint[]))
+                ORDER BY university_id, review_count DESC, tag
+                """, rs -> {
+            List<String> universityTags = tags.computeIfAbsent(rs.getLong("university_id"), id -> new ArrayList<>());
+            if (universityTags.size() < TOP_TAGS) {
+                universityTags.add(rs.getString("tag"));
+            }
+        }, SqlArrays.literal(ids.stream().mapToLong(Long::longValue).toArray()));
+        return tags;
+    }
+
+    private static int[] histogram(int[] counts, ReviewDimension dimension) {
+        int from = UniversityRatingStats.slot(dimension, ReviewDimension.MIN_SCORE);
+        return Arrays.copyOfRange(counts, from, from + ReviewDimension.BUCKETS);
+    }
+
+    private static long total(int[] histogram) {
+        long total = 0;
+        for (int count : histogram) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static Double average(int[] histogram) {
+        long total = 0;
+        long sum = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            total += histogram[i];
+            sum += (long) histogram[i] * (i + ReviewDimension.MIN_SCORE);
+        }
+        return total == 0 ? null : Math.round(sum * 100.0 / total) / 100.0;
+    }
+
+    // ARRAY[count(*) FILTER (WHERE r.rating = 1), ...] в раскладке UniversityRatingStats.slot
+    static String histogramSelectSql(String alias) {
+        StringBuilder sql = new StringBuilder("ARRAY[");
+        for (ReviewDimension dimension : ReviewDimension.values()) {
+            for (int score = ReviewDimension.MIN_SCORE; score <= ReviewDimension.MAX_SCORE; score++) {
+                if (sql.length() > "ARRAY[".length()) {
+                    sql.append(", ");
+                }
+                sql.append("count(").append(alias).append(".id) FILTER (WHERE ")
+                        .append(alias).append('.').append(dimension.column()).append(" = ").append(score).append(')');
+            }
+        }
+        return sql.append("]::integer[]").toString();
+    }
+}
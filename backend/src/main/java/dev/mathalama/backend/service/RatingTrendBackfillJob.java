@@ -0,0 +1,77 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds the rating aggregates (histogram, monthly trend, University.averageRating) of every
+ * university from the review table on demand, a batch of universities per transaction. Each batch goes
+ * through {@link UniversityAggregateService#refresh}, so it holds off this node's flushes and takes the
+ * pending deltas of the batch, like any other recompute. The initial trend backfill is a Flyway
+ * migration (V4), which runs before the first flush.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingTrendBackfillJob {
+
+    private static final int CHUNK_SIZE = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UniversityAggregateService aggregateService;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Async
+    public void runAsync() {
+        run();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Rating trend backfill is already running");
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long lastId = 0;
+            int universities = 0;
+            while (true) {
+                List<Long> ids = jdbcTemplate.queryForList(
+                        "SELECT id FROM university WHERE id > ? ORDER BY id LIMIT ?", Long.class, lastId, CHUNK_SIZE);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                aggregateService.refresh(ids);
+                universities += ids.size();
+                lastId = ids.get(ids.size() - 1);
+            }
+            log.info("Rating trend backfill finished: {} universities in {} ms", universities, System.currentTimeMillis() - start);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // ARRAY[sum(r.rating), sum(r.facilities), ...] в порядке ReviewDimension
+    static String sumsSelectSql(String alias) {
+        StringBuilder sql = new StringBuilder("ARRAY[");
+        for (ReviewDimension dimension : ReviewDimension.values()) {
+            if (dimension.ordinal() > 0) {
+                sql.append(", ");
+            }
+            sql.append("coalesce(sum(").append(alias).append('.').append(dimension.column()).append("), 0)");
+        }
+        return sql.append("]::bigint[]").toString();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import dev.mathalama.backend.domain.UniversityRatingTrend;
+import dev.mathalama.backend.repository.UniversityRatingTrendRepository;
+import dev.mathalama.backend.web.dto.RatingTrendPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class RatingTrendService {
+
+    private final UniversityRatingTrendRepository trendRepository;
+
+    @Transactional(readOnly = true)
+    public List<RatingTrendPoint> getTrend(Long universityId, YearMonth from, YearMonth to) {
+        return trendRepository.findAllByIdUniversityIdAndIdPeriodStartBetweenOrderByIdPeriodStart(
+                        universityId, from.atDay(1), to.atDay(1)).stream()
+                .map(this::mapToPoint)
+                .collect(Collectors.toList());
+    }
+
+    static LocalDate periodStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    private RatingTrendPoint mapToPoint(UniversityRatingTrend trend) {
+        Map<String, Long> sums = new LinkedHashMap<>();
+        for (ReviewDimension dimension : ReviewDimension.values()) {
+            sums.put(dimension.column(), trend.getSums()[dimension.ordinal()]);
+        }
+        return RatingTrendPoint.builder()
+                .month(YearMonth.from(trend.getId().getPeriodStart()).toString())
+                .reviewCount(trend.getReviewCount())
+                .sums(sums)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.event.ReviewFeedEvent;
+import dev.mathalama.backend.eventlog.ReviewEventLog;
+import dev.mathalama.backend.search.ReviewDuplicateIndex;
+import dev.mathalama.backend.web.dto.BulkDeleteReviewsRequest;
+import dev.mathalama.backend.web.dto.BulkDeleteResponse;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+
+@Service
+@Timed("service.method")
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewModerationService {
+
+    public static final int MAX_IDS = 1000;
+
+    private final ReviewEventLog eventLog;
+    private final UniversityAggregateService aggregateService;
+    private final ReviewDuplicateIndex duplicateIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Один DELETE ... RETURNING по условию, затем пересчёт агрегатов один раз на каждый затронутый университет
+    @Transactional
+    public BulkDeleteResponse bulkDelete(BulkDeleteReviewsRequest request) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (request.getReviewIds() != null && !request.getReviewIds().isEmpty()) {
+            if (request.getUserId() != null || request.getUniversityId() != null) {
+                throw new RuntimeException("reviewIds cannot be combined with userId or universityId");
+            }
+            if (request.getReviewIds().size() > MAX_IDS) {
+                throw new RuntimeException("At most " + MAX_IDS + " review ids per request");
+            }
+            conditions.add("id = ANY(CAST(? AS bigint[]))");
+            args.add(SqlArrays.literal(request.getReviewIds().stream().mapToLong(Long::longValue).toArray()));
+        } else {
+            if (request.getUserId() == null && request.getUniversityId() == null) {
+                throw new RuntimeException("Specify reviewIds, userId or universityId");
+            }
+            if (request.getUserId() != null) {
+                conditions.add("user_id = ?");
+                args.add(request.getUserId());
+            }
+            if (request.getUniversityId() != null) {
+                conditions.add("university_id = ?");
+                args.add(request.getUniversityId());
+            }
+        }
+        if (request.getFrom() != null) {
+            conditions.add("created_at >= ?");
+            args.add(Timestamp.valueOf(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            conditions.add("created_at < ?");
+            args.add(Timestamp.valueOf(request.getTo()));
+        }
+
+        // DELETE ... RETURNING; DELETED-события пишутся в журнал при коммите
+        List<ReviewEventLog.Deleted> deleted = eventLog.deleteReviews(String.join(" AND ", conditions), args.toArray());
+
+        SortedMap<Long, List<Long>> byUniversity = ReviewEventLog.Deleted.byUniversity(deleted);
+        Set<Long> universities = byUniversity.keySet();
+        aggregateService.refresh(universities);
+        duplicateIndex.removeAllAfterCommit(deleted.stream().map(ReviewEventLog.Deleted::reviewId).toList());
+        // Одно событие на университет: лента и кэш университета узнают об удалении после коммита
+        byUniversity.forEach((universityId, reviewIds) ->
+                eventPublisher.publishEvent(ReviewFeedEvent.bulkDeleted(universityId, reviewIds)));
+
+        log.info("Bulk moderation removed {} reviews from {} universities", deleted.size(), universities.size());
+        return BulkDeleteResponse.builder()
+                .deleted(deleted.size())
+                .affectedUniversities(universities.size())
+                .build();
+    }
+}
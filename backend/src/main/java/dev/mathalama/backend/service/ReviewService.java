@@ -1,14 +1,21 @@
 package dev.mathalama.backend.service;
 
+import dev.mathalama.backend.config.ReadYourWritesTracker;
 import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.ReviewEvent;
 import dev.mathalama.backend.domain.University;
 import dev.mathalama.backend.domain.User;
+import dev.mathalama.backend.event.ReviewFeedEvent;
+import dev.mathalama.backend.eventlog.ReviewEventLog;
 import dev.mathalama.backend.repository.ReviewRepository;
 import dev.mathalama.backend.repository.UniversityRepository;
 import dev.mathalama.backend.repository.UserRepository;
+import dev.mathalama.backend.search.ReviewDuplicateIndex;
 import dev.mathalama.backend.web.dto.CreateReviewRequest;
 import dev.mathalama.backend.web.dto.ReviewResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,12 +25,19 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final UniversityRepository universityRepository;
     private final UserRepository userRepository;
+    private final RatingAggregator ratingAggregator;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReviewDuplicateIndex duplicateIndex;
+    private final SingleFlightLoader singleFlight;
+    private final ReviewEventLog eventLog;
 
     @Transactional
     public ReviewResponse addReview(CreateReviewRequest request, UserDetails userDetails) {
@@ -37,6 +51,9 @@ public class ReviewService {
             throw new RuntimeException("You have already reviewed this university");
         }
 
+        // Один и тот же текст под разными университетами/аккаунтами — спам
+        int[] signature = duplicateIndex.check(request.getText());
+
         Review review = Review.builder()
                 .text(request.getText())
                 .rating(request.getRating())
@@ -53,11 +70,16 @@ public class ReviewService {
                 .build();
 
         reviewRepository.save(review);
-
-        // Пересчет рейтинга
-        updateUniversityRating(university);
-
-        return mapToResponse(review);
+        readYourWrites.markWrite(user.getEmail());
+        duplicateIndex.indexAfterCommit(review.getId(), university.getId(), signature);
+        // Гистограмма, тренд и averageRating обновляются асинхронно, без блокировки строки университета
+        ratingAggregator.record(review, 1);
+        // Событие пишется перед коммитом, после всех изменений строк (см. ReviewEventLog)
+        eventLog.append(ReviewEvent.Type.CREATED, review);
+
+        ReviewResponse response = mapToResponse(review);
+        eventPublisher.publishEvent(ReviewFeedEvent.created(response));
+        return response;
     }
 
     @Transactional
@@ -76,53 +98,45 @@ public class ReviewService {
         }
 
         reviewRepository.deleteById(id);
+        eventLog.append(ReviewEvent.Type.DELETED, review);
+        readYourWrites.markWrite(user.getEmail());
+        duplicateIndex.removeAfterCommit(id);
         
         // Recalculate rating after deletion
         if (review.getUniversity() != null) {
-            updateUniversityRating(review.getUniversity());
+            ratingAggregator.record(review, -1);
+            eventPublisher.publishEvent(ReviewFeedEvent.deleted(review.getUniversity().getId(), id));
         }
     }
 
     @Transactional(readOnly = true)
     public List<ReviewResponse> getAllReviews() {
         return reviewRepository.findAll().stream()
-                .map(this::mapToResponse)
+                .map(ReviewService::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
+    // Одинаковые параллельные запросы получают один и тот же неизменяемый список
     public List<ReviewResponse> getReviewsByUniversity(Long universityId) {
-        return reviewRepository.findAllByUniversityId(universityId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return singleFlight.load(SingleFlightLoader.UNIVERSITY_REVIEWS, universityId, () ->
+                reviewRepository.findAllByUniversityId(universityId).stream()
+                        .map(ReviewService::mapToResponse)
+                        .toList());
     }
 
-    private void updateUniversityRating(University university) {
-        List<Review> reviews = reviewRepository.findAllByUniversityId(university.getId());
-        double average = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-        
-        // Округляем до 1 знака
-        double roundedAverage = Math.round(average * 10.0) / 10.0;
-        
-        university.setAverageRating(roundedAverage);
-        universityRepository.save(university);
+    // "Имя Ф." — фамилия сокращается до инициала
+    static String displayName(String firstName, String lastName, String email) {
+        if (firstName != null && !firstName.isEmpty()) {
+            return firstName + (lastName != null && !lastName.isEmpty() ? " " + lastName.charAt(0) + "." : "");
+        }
+        // Fallback if names are missing (legacy data)
+        return email.split("@")[0];
     }
 
-    private ReviewResponse mapToResponse(Review review) {
-        String displayName = "Anonymous";
-        if (review.getUser() != null) {
-            String firstName = review.getUser().getFirstname();
-            String lastName = review.getUser().getLastname();
-            if (firstName != null && !firstName.isEmpty()) {
-                displayName = firstName + (lastName != null && !lastName.isEmpty() ? " " + lastName.charAt(0) + "." : "");
-            } else {
-                // Fallback if names are missing (legacy data)
-                displayName = review.getUser().getEmail().split("@")[0];
-            }
-        }
+    // package-private и static для JMH-бенчмарков (src/jmh)
+    static ReviewResponse mapToResponse(Review review) {
+        String displayName = review.getUser() == null ? "Anonymous"
+                : displayName(review.getUser().getFirstname(), review.getUser().getLastname(), review.getUser().getEmail());
 
         return ReviewResponse.builder()
                 .id(review.getId())
@@ -136,7 +150,7 @@ public class ReviewService {
                 .difficulty(review.getDifficulty())
                 .status(review.getStatus())
                 .tags(review.getTags() != null && !review.getTags().isEmpty() 
-                        ? java.util.Arrays.asList(review.getTags().split(",")) 
+                        ? java.util.List.of(review.getTags().split(",")) 
                         : java.util.List.of())
                 .userName(displayName)
                 .userId(review.getUser() != null ? review.getUser().getId() : null)
@@ -0,0 +1,119 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.config.ReadYourWritesTracker;
+import dev.mathalama.backend.event.ReviewFeedEvent;
+import dev.mathalama.backend.event.UniversityChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one load. The first caller for a key (the leader) runs
+ * the loader in a read-only transaction; callers arriving while it is in flight wait for its result
+ * (or exception) instead of taking their own connection. Nothing is cached: the entry is dropped as
+ * soon as the load finishes, and {@link #forget} after a commit makes later callers start a fresh load
+ * rather than join one that may predate the write.
+ * <p>
+ * Results are shared between threads, so loaders must return immutable values (the response DTOs
+ * are {@code @Value} with unmodifiable lists, review pages come from {@code Stream.toList()}). Users inside their
+ * read-your-writes window bypass coalescing, since the leader's read may be routed to a replica.
+ */
+@Component
+public class SingleFlightLoader {
+
+    static final String UNIVERSITY = "university";
+    static final String UNIVERSITY_REVIEWS = "university-reviews";
+
+    private record Key(String group, Object id) {}
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadYourWritesTracker readYourWrites;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.single-flight.timeout:5s}")
+    private Duration timeout;
+
+    public SingleFlightLoader(PlatformTransactionManager transactionManager, ReadYourWritesTracker readYourWrites,
+                              MeterRegistry meterRegistry) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readYourWrites = readYourWrites;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String group, Object id, Supplier<T> loader) {
+        if (readYourWrites.isSticky()) {
+            count(group, "bypassed");
+            return readOnlyTransaction.execute(status -> loader.get());
+        }
+
+        Key key = new Key(group, id);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, own);
+        if (existing == null) {
+            count(group, "leader");
+            try {
+                T result = readOnlyTransaction.execute(status -> loader.get());
+                own.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, own);
+            }
+        }
+
+        count(group, "collapsed");
+        try {
+            return (T) existing.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            count(group, "timeout");
+            throw new RuntimeException("Timed out waiting for " + group + " " + id);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + group + " " + id);
+        }
+    }
+
+    // Загрузку, которая уже идёт, не отменяем: она достанется тем, кто успел к ней присоединиться
+    public void forget(String group, Object id) {
+        inFlight.remove(new Key(group, id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUniversityChanged(UniversityChangedEvent event) {
+        forget(UNIVERSITY, event.universityId());
+        forget(UNIVERSITY_REVIEWS, event.universityId());
+    }
+
+    // Теги университета собираются из отзывов, поэтому отзыв сбрасывает обе группы
+    @TransactionalEventListener
+    public void onReviewChanged(ReviewFeedEvent event) {
+        forget(UNIVERSITY, event.universityId());
+        forget(UNIVERSITY_REVIEWS, event.universityId());
+    }
+
+    private void count(String group, String result) {
+        meterRegistry.counter("single.flight.calls", "group", group, "result", result).increment();
+    }
+}
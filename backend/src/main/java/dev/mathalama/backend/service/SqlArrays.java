@@ -0,0 +1,30 @@
+package dev.mathalama.backend.service;
+
+// Литералы массивов PostgreSQL ('{1,2,3}') для CAST(:param AS integer[]) в native-запросах
+public final class SqlArrays {
+
+    private SqlArrays() {
+    }
+
+    public static String literal(int[] values) {
+        StringBuilder sb = new StringBuilder(values.length * 3 + 2).append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    public static String literal(long[] values) {
+        StringBuilder sb = new StringBuilder(values.length * 3 + 2).append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
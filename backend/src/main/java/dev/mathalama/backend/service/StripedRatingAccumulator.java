@@ -0,0 +1,131 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import dev.mathalama.backend.domain.UniversityRatingStats;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pending rating deltas per university, split over lock stripes so concurrent review writes for
+ * different universities never wait on each other and writes for the same university only
+ * contend on a short in-memory critical section. {@link #drain()} swaps the stripes out for
+ * flushing; {@link #restore(Map)} puts back a batch whose flush failed.
+ */
+final class StripedRatingAccumulator {
+
+    // [0] = изменение числа отзывов, [1..] = суммы оценок в порядке ReviewDimension
+    static final int BUCKET_SIZE = 1 + ReviewDimension.values().length;
+
+    static final class Pending {
+        final int[] counts = new int[UniversityRatingStats.SIZE];
+        final Map<LocalDate, long[]> buckets = new HashMap<>();
+
+        void add(int[] countsDelta, LocalDate periodStart, long[] bucketDelta) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += countsDelta[i];
+            }
+            addBucket(periodStart, bucketDelta);
+        }
+
+        void addAll(Pending other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            other.buckets.forEach(this::addBucket);
+        }
+
+        private void addBucket(LocalDate periodStart, long[] bucketDelta) {
+            long[] bucket = buckets.computeIfAbsent(periodStart, k -> new long[BUCKET_SIZE]);
+            for (int i = 0; i < bucket.length; i++) {
+                bucket[i] += bucketDelta[i];
+            }
+        }
+    }
+
+    private static final class Stripe {
+        private Map<Long, Pending> pending = new HashMap<>();
+    }
+
+    private final Stripe[] stripes;
+    private final int shift;
+
+    StripedRatingAccumulator(int stripeCount) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(stripeCount, 2) - 1);
+        stripes = new Stripe[1 << bits];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        shift = 32 - bits;
+    }
+
+    void add(Long universityId, int[] countsDelta, LocalDate periodStart, long[] bucketDelta) {
+        Stripe stripe = stripeFor(universityId);
+        synchronized (stripe) {
+            stripe.pending.computeIfAbsent(universityId, k -> new Pending()).add(countsDelta, periodStart, bucketDelta);
+        }
+    }
+
+    // Забирает всё накопленное; ключи отсортированы, чтобы flush брал блокировки строк в одном порядке
+    TreeMap<Long, Pending> drain() {
+        TreeMap<Long, Pending> batch = new TreeMap<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, Pending> drained;
+            synchronized (stripe) {
+                if (stripe.pending.isEmpty()) {
+                    continue;
+                }
+                drained = stripe.pending;
+                stripe.pending = new HashMap<>();
+            }
+            batch.putAll(drained);
+        }
+        return batch;
+    }
+
+    void restore(Map<Long, Pending> batch) {
+        for (Map.Entry<Long, Pending> entry : batch.entrySet()) {
+            Stripe stripe = stripeFor(entry.getKey());
+            synchronized (stripe) {
+                Pending current = stripe.pending.get(entry.getKey());
+                if (current == null) {
+                    stripe.pending.put(entry.getKey(), entry.getValue());
+                } else {
+                    current.addAll(entry.getValue());
+                }
+            }
+        }
+    }
+
+    // Убирает дельты этих университетов и возвращает их (для restore, если пересчёт откатится)
+    Map<Long, Pending> discard(Iterable<Long> universityIds) {
+        Map<Long, Pending> removed = new HashMap<>();
+        for (Long universityId : universityIds) {
+            Stripe stripe = stripeFor(universityId);
+            Pending pending;
+            synchronized (stripe) {
+                pending = stripe.pending.remove(universityId);
+            }
+            if (pending != null) {
+                removed.put(universityId, pending);
+            }
+        }
+        return removed;
+    }
+
+    int pendingUniversities() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.pending.size();
+            }
+        }
+        return total;
+    }
+
+    private Stripe stripeFor(Long universityId) {
+        return stripes[(Long.hashCode(universityId) * 0x9E3779B9) >>> shift];
+    }
+}
@@ -0,0 +1,148 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.event.RatingAggregatesChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Recomputes the per-university aggregates (rating histogram, monthly trend, averageRating)
+ * from the review table for a set of universities, three set-based statements per kind regardless
+ * of how many universities or reviews are involved. Used after bulk deletes, where replaying
+ * per-review deltas would mean loading every deleted row.
+ * <p>
+ * The recompute runs in its own REPEATABLE READ transaction, after the caller's transaction commits
+ * (immediately when there is none), so every statement reads the same set of reviews, the caller's
+ * deletes included. This node's {@link RatingAggregator} flushes are suspended first; the pending
+ * deltas of these universities are taken right after the snapshot is established, so a review
+ * committed before it is counted once by the recompute and a review committed after it once by the
+ * next flush. The aggregate rows are locked in id order, as in the flush, and a serialization
+ * failure retries the whole recompute.
+ * <p>
+ * Only this node's deltas are taken. Another node may still hold unflushed deltas of reviews that
+ * the snapshot already contains: the row locks only delay its flush, which then counts those reviews
+ * a second time. {@link AggregateReconciliationJob} repairs such drift on its next runs.
+ */
+@Service
+@Slf4j
+public class UniversityAggregateService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final RatingAggregator ratingAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UniversityAggregateService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      RatingAggregator ratingAggregator, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        // REQUIRES_NEW: из afterCommit транзакция вызывающего ещё привязана к потоку
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.ratingAggregator = ratingAggregator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void refresh(Collection<Long> universityIds) {
+        if (universityIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(universityIds);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            recompute(ids);
+            return;
+        }
+        // Пересчёт должен видеть удаления вызывающего, поэтому идёт после его коммита
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    recompute(ids);
+                } catch (RuntimeException e) {
+                    // Коммит уже состоялся; расхождение починит AggregateReconciliationJob
+                    log.warn("Aggregate refresh failed for {} universities: {}", ids.size(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void recompute(Set<Long> universityIds) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                snapshotTransaction.executeWithoutResult(status -> recomputeInSnapshot(universityIds));
+                break;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Aggregate refresh conflicted with a concurrent write, retrying: {}", e.getMessage());
+            }
+        }
+        eventPublisher.publishEvent(new RatingAggregatesChangedEvent(universityIds));
+        log.debug("Aggregates refreshed for {} universities", universityIds.size());
+    }
+
+    private void recomputeInSnapshot(Set<Long> universityIds) {
+        // До конца транзакции flush на этом узле не пишет поверх пересчитанных строк
+        ratingAggregator.suspendFlushesUntilCompletion();
+        String ids = SqlArrays.literal(universityIds.stream().mapToLong(Long::longValue).sorted().toArray());
+
+        // Первый запрос фиксирует снимок; сразу за ним забираем дельты, которые в него уже вошли
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        ratingAggregator.discardAfterCommit(universityIds);
+
+        // Строки агрегатов блокируются в порядке id, как во flush. Это задерживает flush других узлов,
+        // но их ещё не записанные дельты по отзывам из снимка будут учтены повторно (см. javadoc)
+        jdbcTemplate.queryForList("""
+                SELECT university_id FROM university_rating_stats
+                WHERE university_id = ANY(CAST(? AS bigint[]))
+                ORDER BY university_id
+                FOR UPDATE
+                """, Long.class, ids);
+        jdbcTemplate.queryForList("""
+                SELECT university_id FROM university_rating_trend
+                WHERE university_id = ANY(CAST(? AS bigint[]))
+                ORDER BY university_id, period_start
+                FOR UPDATE
+                """, Long.class, ids);
+
+        jdbcTemplate.update("""
+                INSERT INTO university_rating_stats (university_id, counts)
+                SELECT u.id, %s
+                FROM university u LEFT JOIN review r ON r.university_id = u.id
+                WHERE u.id = ANY(CAST(? AS bigint[]))
+                GROUP BY u.id
+                ON CONFLICT (university_id) DO UPDATE SET counts = EXCLUDED.counts
+                """.formatted(RatingStatsService.histogramSelectSql("r")), ids);
+
+        jdbcTemplate.update("DELETE FROM university_rating_trend WHERE university_id = ANY(CAST(? AS bigint[]))", ids);
+        jdbcTemplate.update("""
+                INSERT INTO university_rating_trend (university_id, period_start, review_count, sums)
+                SELECT r.university_id, CAST(date_trunc('month', r.created_at) AS date), count(*), %s
+                FROM review r
+                WHERE r.university_id = ANY(CAST(? AS bigint[]))
+                GROUP BY r.university_id, CAST(date_trunc('month', r.created_at) AS date)
+                ON CONFLICT (university_id, period_start)
+                DO UPDATE SET review_count = EXCLUDED.review_count, sums = EXCLUDED.sums
+                """.formatted(RatingTrendBackfillJob.sumsSelectSql("r")), ids);
+
+        // То же округление до 1 знака, что и RatingAggregator.averageFromStatsSql
+        jdbcTemplate.update("""
+                UPDATE university u
+                SET average_rating = coalesce((SELECT round(avg(r.rating), 1) FROM review r WHERE r.university_id = u.id), 0)
+                WHERE u.id = ANY(CAST(? AS bigint[]))
+                """, ids);
+    }
+}
@@ -1,23 +1,45 @@
 package dev.mathalama.backend.service;
 
 import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.event.UniversityChangedEvent;
+import dev.mathalama.backend.eventlog.ReviewEventLog;
 import dev.mathalama.backend.repository.UniversityRepository;
+import dev.mathalama.backend.search.ReviewDuplicateIndex;
+import dev.mathalama.backend.search.SimilarUniversitiesIndex;
+import dev.mathalama.backend.search.UniversityRanking;
+import dev.mathalama.backend.web.dto.RankedUniversity;
+import dev.mathalama.backend.web.dto.SimilarUniversity;
 import dev.mathalama.backend.web.dto.CreateUniversityRequest;
 import dev.mathalama.backend.web.dto.UniversityResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import dev.mathalama.backend.web.dto.UpdateUniversityRequest;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 public class UniversityService {
 
+    static final int MAX_BATCH = 50;
+
     private final UniversityRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlightLoader singleFlight;
+    private final SimilarUniversitiesIndex similarIndex;
+    private final UniversityRanking ranking;
+    private final ReviewEventLog eventLog;
+    private final ReviewDuplicateIndex duplicateIndex;
 
     @Transactional
     public UniversityResponse updateUniversity(Long id, UpdateUniversityRequest request) {
@@ -31,21 +53,105 @@ public class UniversityService {
         if (request.getWebsite() != null) university.setWebsite(request.getWebsite());
         if (request.getLogoUrl() != null) university.setLogoUrl(request.getLogoUrl());
 
-        return mapToResponse(repository.save(university));
+        University saved = repository.save(university);
+        publishSaved(saved);
+        return mapToResponse(saved);
     }
 
     @Transactional(readOnly = true)
     public List<UniversityResponse> getAllUniversities() {
         return repository.findAll().stream()
-                .map(this::mapToResponse)
+                .map(UniversityService::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Один запрос с отзывами для всех id; порядок — как в запросе, несуществующие id пропускаются
+    @Transactional(readOnly = true)
+    public List<UniversityResponse> getUniversitiesByIds(List<Long> ids) {
+        List<Long> distinct = requireBatch(ids);
+        Map<Long, University> byId = repository.findAllByIdIn(distinct).stream()
+                .collect(Collectors.toMap(University::getId, Function.identity()));
+        return distinct.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(UniversityService::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    static List<Long> requireBatch(List<Long> ids) {
+        List<Long> distinct = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            throw new RuntimeException("At least one university id is required");
+        }
+        if (distinct.size() > MAX_BATCH) {
+            throw new RuntimeException("At most " + MAX_BATCH + " universities can be requested at once");
+        }
+        return distinct;
+    }
+
+    // Соседи берутся из предрасчитанной таблицы, из БД — только карточки найденных университетов
+    @Transactional(readOnly = true)
+    public List<SimilarUniversity> getSimilarUniversities(Long id, int limit) {
+        List<SimilarUniversitiesIndex.Neighbour> neighbours =
+                similarIndex.neighbours(id, Math.max(1, Math.min(limit, similarIndex.maxNeighbours())));
+        if (neighbours == null) {
+            if (!repository.existsById(id)) {
+                throw new RuntimeException("University not found");
+            }
+            return List.of();
+        }
+        Map<Long, University> byId = repository.findAllById(neighbours.stream().map(SimilarUniversitiesIndex.Neighbour::universityId).toList())
+                .stream()
+                .collect(Collectors.toMap(University::getId, Function.identity()));
+        return neighbours.stream()
+                .filter(neighbour -> byId.containsKey(neighbour.universityId()))
+                .map(neighbour -> {
+                    University university = byId.get(neighbour.universityId());
+                    return SimilarUniversity.builder()
+                            .id(university.getId())
+                            .name(university.getName())
+                            .country(university.getCountry())
+                            .city(university.getCity())
+                            .logoUrl(university.getLogoUrl())
+                            .averageRating(university.getAverageRating())
+                            .similarity(Math.round(neighbour.score() * 1000) / 1000.0)
+                            .build();
+                })
                 .collect(Collectors.toList());
     }
 
+    // Ранжирование целиком в памяти, из БД — только карточки первых limit университетов
     @Transactional(readOnly = true)
+    public List<RankedUniversity> rankUniversities(String weights, int limit, int minReviews) {
+        UniversityRanking.Ranked[] ranked = ranking.top(UniversityRanking.parseWeights(weights), limit, minReviews);
+        Map<Long, University> byId = repository.findAllById(Arrays.stream(ranked).map(UniversityRanking.Ranked::universityId).toList())
+                .stream()
+                .collect(Collectors.toMap(University::getId, Function.identity()));
+        return Arrays.stream(ranked)
+                .filter(entry -> byId.containsKey(entry.universityId()))
+                .map(entry -> {
+                    University university = byId.get(entry.universityId());
+                    return RankedUniversity.builder()
+                            .id(university.getId())
+                            .name(university.getName())
+                            .country(university.getCountry())
+                            .city(university.getCity())
+                            .logoUrl(university.getLogoUrl())
+                            .averageRating(university.getAverageRating())
+                            .reviewCount(entry.reviewCount())
+                            .score(Math.round(entry.score() * 100) / 100.0)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Без @Transactional: ждущие не держат соединение, транзакцию открывает только ведущий запрос
     public UniversityResponse getUniversityById(Long id) {
-        University university = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("University not found"));
-        return mapToResponse(university);
+        return singleFlight.load(SingleFlightLoader.UNIVERSITY, id, () -> {
+            University university = repository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("University not found"));
+            return mapToResponse(university);
+        });
     }
 
     public UniversityResponse createUniversity(CreateUniversityRequest request) {
@@ -58,22 +164,42 @@ public class UniversityService {
                 .logoUrl(request.getLogoUrl())
                 .averageRating(0.0)
                 .build();
-        return mapToResponse(repository.save(university));
+        University saved = repository.save(university);
+        publishSaved(saved);
+        return mapToResponse(saved);
     }
 
+    // Без загрузки сущностей: отзывы удаляются вместе с записью в журнал событий,
+    // статистика и тренды — каскадом в БД (@OnDelete)
+    @Transactional
     public void deleteUniversity(Long id) {
-        repository.deleteById(id);
+        List<ReviewEventLog.Deleted> deleted = eventLog.deleteReviews("university_id = ?", id);
+        repository.deleteAllByIdInBatch(List.of(id));
+        duplicateIndex.removeAllAfterCommit(deleted.stream().map(ReviewEventLog.Deleted::reviewId).toList());
+        eventPublisher.publishEvent(UniversityChangedEvent.deleted(id));
+    }
+
+    private void publishSaved(University university) {
+        eventPublisher.publishEvent(UniversityChangedEvent.saved(
+                university.getId(), university.getName(), university.getCity(), university.getCountry()));
     }
 
-    private UniversityResponse mapToResponse(University university) {
-        List<String> tags = university.getReviews() == null ? List.of() : university.getReviews().stream()
-                .filter(r -> r.getTags() != null && !r.getTags().isEmpty())
-                .flatMap(r -> java.util.Arrays.stream(r.getTags().split(",")))
+    // Первые 10 различных тегов из строк отзывов "tag1,tag2"
+    static List<String> tagsOf(java.util.stream.Stream<String> reviewTags) {
+        return reviewTags
+                .filter(tags -> tags != null && !tags.isEmpty())
+                .flatMap(tags -> java.util.Arrays.stream(tags.split(",")))
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .distinct()
                 .limit(10)
                 .collect(Collectors.toList());
+    }
+
+    // package-private и static для JMH-бенчмарков (src/jmh)
+    static UniversityResponse mapToResponse(University university) {
+        List<String> tags = university.getReviews() == null ? List.of()
+                : tagsOf(university.getReviews().stream().map(dev.mathalama.backend.domain.Review::getTags));
 
         return UniversityResponse.builder()
                 .id(university.getId())
@@ -84,7 +210,7 @@ public class UniversityService {
                 .website(university.getWebsite())
                 .logoUrl(university.getLogoUrl())
                 .averageRating(university.getAverageRating())
-                .tags(tags)
+                .tags(List.copyOf(tags))
                 .build();
     }
 }
@@ -0,0 +1,162 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.config.TokenRevocationService;
+import dev.mathalama.backend.domain.Role;
+import dev.mathalama.backend.event.ReviewFeedEvent;
+import dev.mathalama.backend.eventlog.ReviewEventLog;
+import dev.mathalama.backend.repository.UserRepository;
+import dev.mathalama.backend.search.ReviewDuplicateIndex;
+import dev.mathalama.backend.web.dto.UserDirectoryPage;
+import dev.mathalama.backend.web.dto.UserResponse;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+
+@Service
+@Timed("service.method")
+@RequiredArgsConstructor
+@Slf4j
+public class UserService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final UserRepository userRepository;
+    private final ReviewEventLog eventLog;
+    private final UniversityAggregateService aggregateService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenRevocationService tokenRevocationService;
+    private final ReviewDuplicateIndex duplicateIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Отзывы пользователя удаляем явно, а не каскадом, чтобы каждое удаление попало в журнал событий;
+    // агрегаты затронутых университетов пересчитываются одним пакетом
+    @Transactional
+    public void deleteUser(Long id) {
+        List<ReviewEventLog.Deleted> deleted = eventLog.deleteReviews("user_id = ?", id);
+        SortedMap<Long, List<Long>> byUniversity = ReviewEventLog.Deleted.byUniversity(deleted);
+        userRepository.deleteAllByIdInBatch(List.of(id));
+        aggregateService.refresh(byUniversity.keySet());
+        duplicateIndex.removeAllAfterCommit(deleted.stream().map(ReviewEventLog.Deleted::reviewId).toList());
+        byUniversity.forEach((universityId, reviewIds) ->
+                eventPublisher.publishEvent(ReviewFeedEvent.bulkDeleted(universityId, reviewIds)));
+    }
+
+    public void revokeTokens(Long id) {
+        var user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        tokenRevocationService.revokeAll(user.getEmail());
+    }
+
+    /**
+     * Admin user directory ordered by email (C collation, then id), keyset-paginated: the cursor is
+     * the last row's sort key, so every page is an index range scan regardless of depth.
+     * {@code query} matches an email prefix or a first/last name prefix, case-insensitively.
+     */
+    @Transactional(readOnly = true)
+    public UserDirectoryPage listUsers(String query, Role role, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (query != null && !query.isBlank()) {
+            String prefix = escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%";
+            if (prefix.contains("@")) {
+                conditions.add("lower(u.email) COLLATE \"C\" LIKE ?");
+                args.add(prefix);
+            } else {
+                conditions.add("(lower(u.email) COLLATE \"C\" LIKE ? OR lower(u.lastname) LIKE ? OR lower(u.firstname) LIKE ?)");
+                args.add(prefix);
+                args.add(prefix);
+                args.add(prefix);
+            }
+        }
+        if (role != null) {
+            conditions.add("u.role = ?");
+            args.add(role.name());
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.decode(cursor);
+            conditions.add("(lower(u.email) COLLATE \"C\", u.id) > (? COLLATE \"C\", ?)");
+            args.add(after.email());
+            args.add(after.id());
+        }
+        args.add(pageSize + 1);
+
+        List<String> sortKeys = new ArrayList<>();
+        List<UserResponse> rows = jdbcTemplate.query("""
+                SELECT u.id, u.email, u.firstname, u.lastname, u.role, lower(u.email) AS sort_key
+                FROM _user u
+                %s
+                ORDER BY lower(u.email) COLLATE "C", u.id
+                LIMIT ?
+                """.formatted(conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions)),
+                (rs, rowNum) -> {
+                    sortKeys.add(rs.getString("sort_key"));
+                    return UserResponse.builder()
+                            .id(rs.getLong("id"))
+                            .email(rs.getString("email"))
+                            .firstname(rs.getString("firstname"))
+                            .lastname(rs.getString("lastname"))
+                            .role(rs.getString("role") != null ? Role.valueOf(rs.getString("role")) : null)
+                            .reviewCount(0L)
+                            .build();
+                },
+                args.toArray());
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = new Cursor(sortKeys.get(pageSize - 1), rows.get(pageSize - 1).getId()).encode();
+        }
+
+        // Число отзывов — одним GROUP BY по всей странице
+        if (!rows.isEmpty()) {
+            Map<Long, UserResponse> byId = new HashMap<>();
+            rows.forEach(user -> byId.put(user.getId(), user));
+            jdbcTemplate.query(
+                    "SELECT r.user_id, count(*) FROM review r WHERE r.user_id = ANY(CAST(? AS bigint[])) GROUP BY r.user_id",
+                    rs -> byId.get(rs.getLong(1)).setReviewCount(rs.getLong(2)),
+                    SqlArrays.literal(byId.keySet().stream().mapToLong(Long::longValue).toArray()));
+        }
+
+        return UserDirectoryPage.builder()
+                .items(rows)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record Cursor(String email, long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((id + ":" + email).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int colon = decoded.indexOf(':');
+                return new Cursor(decoded.substring(colon + 1), Long.parseLong(decoded.substring(0, colon)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.mathalama.backend.web;
+
+import dev.mathalama.backend.analytics.GroupBy;
+import dev.mathalama.backend.analytics.ReviewAnalyticsService;
+import dev.mathalama.backend.config.StatementBudget;
+import dev.mathalama.backend.web.dto.RatingBreakdown;
+import dev.mathalama.backend.web.dto.TagBreakdown;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Разрезы по отзывам из снимка в памяти: запросы к БД не выполняются
+@RestController
+@RequestMapping("/api/v1/admin/analytics")
+@PreAuthorize("hasAuthority('ADMIN')")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final ReviewAnalyticsService analyticsService;
+
+    // groupBy: country, city, status, year. Из БД — только загрузка пользователя по JWT
+    @StatementBudget(1)
+    @GetMapping("/ratings")
+    public ResponseEntity<RatingBreakdown> ratings(@RequestParam(value = "groupBy", defaultValue = "country") String groupBy) {
+        return ResponseEntity.ok(analyticsService.ratings(GroupBy.parse(groupBy)));
+    }
+
+    @StatementBudget(1)
+    @GetMapping("/tags")
+    public ResponseEntity<TagBreakdown> tags(
+            @RequestParam(value = "groupBy", defaultValue = "city") String groupBy,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(analyticsService.tags(GroupBy.parse(groupBy), limit));
+    }
+
+    // Снимок обновляется сам раз в application.analytics.refresh-interval-ms; здесь — сразу
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        analyticsService.refresh();
+        return ResponseEntity.ok(Map.of("reviews", analyticsService.snapshotSize()));
+    }
+}
@@ -18,6 +18,8 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class AuthenticationController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthenticationService service;
 
     @PostMapping("/register")
@@ -61,6 +63,17 @@ public class AuthenticationController {
         return ResponseEntity.ok("Password reset successfully. You can now login.");
     }
 
+    // Отзывает текущий токен; на других устройствах сессии остаются.
+    // Старый токен без jti отзывается вместе со всеми токенами пользователя
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX) || authHeader.length() == BEARER_PREFIX.length()) {
+            return ResponseEntity.status(org.springframework.http.HttpStatus.UNAUTHORIZED).build();
+        }
+        service.logout(authHeader.substring(BEARER_PREFIX.length()));
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getCurrentUser(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
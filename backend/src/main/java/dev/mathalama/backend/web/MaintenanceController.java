@@ -0,0 +1,80 @@
+package dev.mathalama.backend.web;
+
+import dev.mathalama.backend.eventlog.ProjectionRunner;
+import dev.mathalama.backend.search.ReviewDuplicateIndex;
+import dev.mathalama.backend.service.AggregateReconciliationJob;
+import dev.mathalama.backend.service.RatingTrendBackfillJob;
+import dev.mathalama.backend.web.dto.ProjectionStatus;
+import dev.mathalama.backend.web.dto.ReconciliationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/maintenance")
+@PreAuthorize("hasAuthority('ADMIN')")
+@RequiredArgsConstructor
+public class MaintenanceController {
+
+    private final RatingTrendBackfillJob ratingTrendBackfillJob;
+    private final ReviewDuplicateIndex reviewDuplicateIndex;
+    private final AggregateReconciliationJob aggregateReconciliationJob;
+    private final ProjectionRunner projectionRunner;
+
+    @PostMapping("/rating-trends/backfill")
+    public ResponseEntity<Map<String, String>> backfillRatingTrends() {
+        if (ratingTrendBackfillJob.isRunning()) {
+            return ResponseEntity.status(org.springframework.http.HttpStatus.CONFLICT)
+                    .body(Map.of("status", "Backfill is already running"));
+        }
+        ratingTrendBackfillJob.runAsync();
+        return ResponseEntity.accepted().body(Map.of("status", "Backfill started"));
+    }
+
+    // Пересобирает индекс дубликатов этого узла из таблицы review
+    @PostMapping("/review-duplicates/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDuplicateIndex() {
+        reviewDuplicateIndex.rebuild();
+        return ResponseEntity.ok(Map.of("indexedReviews", reviewDuplicateIndex.size()));
+    }
+
+    // Сверка агрегатов рейтинга с отзывами вне расписания; прогресс — GET того же пути
+    @PostMapping("/aggregates/reconcile")
+    public ResponseEntity<Map<String, String>> reconcileAggregates() {
+        if (aggregateReconciliationJob.isRunning()) {
+            return ResponseEntity.status(org.springframework.http.HttpStatus.CONFLICT)
+                    .body(Map.of("status", "Reconciliation is already running"));
+        }
+        aggregateReconciliationJob.runAsync();
+        return ResponseEntity.accepted().body(Map.of("status", "Reconciliation started"));
+    }
+
+    @GetMapping("/aggregates/reconcile")
+    public ResponseEntity<ReconciliationStatus> reconciliationStatus() {
+        return ResponseEntity.ok(aggregateReconciliationJob.status());
+    }
+
+    @GetMapping("/projections")
+    public ResponseEntity<List<ProjectionStatus>> projections() {
+        return ResponseEntity.ok(projectionRunner.status());
+    }
+
+    // Стирает read model и проигрывает журнал review_event с начала
+    @PostMapping("/projections/{name}/rebuild")
+    public ResponseEntity<Map<String, String>> rebuildProjection(@PathVariable String name) {
+        if (projectionRunner.isBusy(name)) {
+            return ResponseEntity.status(org.springframework.http.HttpStatus.CONFLICT)
+                    .body(Map.of("status", "Projection is busy, try again shortly"));
+        }
+        projectionRunner.rebuildAsync(name);
+        return ResponseEntity.accepted().body(Map.of("status", "Rebuild started"));
+    }
+}
@@ -1,6 +1,11 @@
 package dev.mathalama.backend.web;
 
+import dev.mathalama.backend.config.StatementBudget;
+import dev.mathalama.backend.service.CatalogProjectionService;
+import dev.mathalama.backend.service.ReviewModerationService;
 import dev.mathalama.backend.service.ReviewService;
+import dev.mathalama.backend.web.dto.BulkDeleteResponse;
+import dev.mathalama.backend.web.dto.BulkDeleteReviewsRequest;
 import dev.mathalama.backend.web.dto.CreateReviewRequest;
 import dev.mathalama.backend.web.dto.ReviewResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +15,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/reviews")
@@ -17,18 +23,32 @@ import java.util.List;
 public class ReviewController {
 
     private final ReviewService service;
+    private final ReviewModerationService moderationService;
+    private final CatalogProjectionService projectionService;
 
+    @StatementBudget(2)
     @GetMapping
     @org.springframework.security.access.prepost.PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<List<ReviewResponse>> getAllReviews() {
         return ResponseEntity.ok(service.getAllReviews());
     }
 
+    @StatementBudget(1)
     @GetMapping("/university/{universityId}")
     public ResponseEntity<List<ReviewResponse>> getReviewsByUniversity(@PathVariable Long universityId) {
         return ResponseEntity.ok(service.getReviewsByUniversity(universityId));
     }
 
+    @StatementBudget(1)
+    @GetMapping(value = "/university/{universityId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getReviewFieldsByUniversity(
+            @PathVariable Long universityId,
+            @RequestParam("fields") String fields
+    ) {
+        return ResponseEntity.ok(projectionService.getReviewsByUniversity(universityId, CatalogProjectionService.parseFields(fields)));
+    }
+
+    @StatementBudget(10)
     @PostMapping
     public ResponseEntity<ReviewResponse> addReview(
             @RequestBody @jakarta.validation.Valid CreateReviewRequest request,
@@ -37,6 +57,7 @@ public class ReviewController {
         return ResponseEntity.ok(service.addReview(request, userDetails));
     }
 
+    @StatementBudget(10)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteReview(
             @PathVariable Long id,
@@ -45,4 +66,11 @@ public class ReviewController {
         service.deleteReview(id, userDetails);
         return ResponseEntity.noContent().build();
     }
+
+    @StatementBudget(11)
+    @PostMapping("/bulk-delete")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkDeleteResponse> bulkDelete(@RequestBody BulkDeleteReviewsRequest request) {
+        return ResponseEntity.ok(moderationService.bulkDelete(request));
+    }
 }
@@ -0,0 +1,32 @@
+package dev.mathalama.backend.web;
+
+import dev.mathalama.backend.config.StatementBudget;
+import dev.mathalama.backend.feed.ReviewFeedHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Живая лента отзывов (Server-Sent Events): события review-created / review-deleted вместо опроса
+@RestController
+@RequestMapping("/api/v1/reviews")
+@RequiredArgsConstructor
+public class ReviewFeedController {
+
+    private final ReviewFeedHub hub;
+
+    @StatementBudget(0)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAll() {
+        return hub.subscribe(ReviewFeedHub.GLOBAL);
+    }
+
+    @StatementBudget(0)
+    @GetMapping(value = "/university/{universityId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUniversity(@PathVariable Long universityId) {
+        return hub.subscribe(universityId);
+    }
+}
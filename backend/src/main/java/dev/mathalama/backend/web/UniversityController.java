@@ -1,13 +1,27 @@
 package dev.mathalama.backend.web;
 
+import dev.mathalama.backend.config.StatementBudget;
+import dev.mathalama.backend.search.UniversitySuggestionIndex;
+import dev.mathalama.backend.service.CatalogProjectionService;
+import dev.mathalama.backend.service.RatingStatsService;
+import dev.mathalama.backend.service.RatingTrendService;
 import dev.mathalama.backend.service.UniversityService;
 import dev.mathalama.backend.web.dto.CreateUniversityRequest;
+import dev.mathalama.backend.web.dto.RankedUniversity;
+import dev.mathalama.backend.web.dto.RatingTrendPoint;
+import dev.mathalama.backend.web.dto.SimilarUniversity;
+import dev.mathalama.backend.web.dto.UniversityComparison;
 import dev.mathalama.backend.web.dto.UniversityResponse;
+import dev.mathalama.backend.web.dto.UniversityStatsResponse;
+import dev.mathalama.backend.web.dto.UniversitySuggestion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 import dev.mathalama.backend.web.dto.UpdateUniversityRequest;
 
@@ -17,17 +31,96 @@ import dev.mathalama.backend.web.dto.UpdateUniversityRequest;
 public class UniversityController {
 
     private final UniversityService service;
+    private final UniversitySuggestionIndex suggestionIndex;
+    private final RatingStatsService ratingStatsService;
+    private final RatingTrendService ratingTrendService;
+    private final CatalogProjectionService projectionService;
 
+    // ?ids=1,2,3 — только эти университеты (до 50), тем же одним запросом
+    @StatementBudget(1)
     @GetMapping
-    public ResponseEntity<List<UniversityResponse>> getAllUniversities() {
-        return ResponseEntity.ok(service.getAllUniversities());
+    public ResponseEntity<List<UniversityResponse>> getAllUniversities(
+            @RequestParam(value = "ids", required = false) List<Long> ids
+    ) {
+        return ResponseEntity.ok(ids == null ? service.getAllUniversities() : service.getUniversitiesByIds(ids));
+    }
+
+    // ?fields=name,averageRating — из БД читаются только эти колонки, в ответе только эти поля (и id); tags — второй запрос
+    @StatementBudget(2)
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getUniversityFields(
+            @RequestParam("fields") String fields,
+            @RequestParam(value = "ids", required = false) List<Long> ids
+    ) {
+        return ResponseEntity.ok(projectionService.getUniversities(CatalogProjectionService.parseFields(fields), ids));
+    }
+
+    // ?weights=food:2,opportunities:1,difficulty:-1 — измерения: rating, facilities, opportunities, location, internet, food, difficulty
+    @StatementBudget(1)
+    @GetMapping("/ranking")
+    public ResponseEntity<List<RankedUniversity>> rank(
+            @RequestParam("weights") String weights,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "minReviews", defaultValue = "1") int minReviews
+    ) {
+        return ResponseEntity.ok(service.rankUniversities(weights, limit, minReviews));
+    }
+
+    @StatementBudget(3)
+    @GetMapping("/compare")
+    public ResponseEntity<List<UniversityComparison>> compare(@RequestParam("ids") List<Long> ids) {
+        return ResponseEntity.ok(ratingStatsService.compare(ids));
+    }
+
+    @StatementBudget(0)
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UniversitySuggestion>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(suggestionIndex.suggest(query, limit));
     }
 
+    @StatementBudget(2)
     @GetMapping("/{id}")
     public ResponseEntity<UniversityResponse> getUniversityById(@PathVariable Long id) {
         return ResponseEntity.ok(service.getUniversityById(id));
     }
 
+    @StatementBudget(2)
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getUniversityFieldsById(@PathVariable Long id, @RequestParam("fields") String fields) {
+        return ResponseEntity.ok(projectionService.getUniversity(id, CatalogProjectionService.parseFields(fields)));
+    }
+
+    @StatementBudget(2)
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarUniversity>> getSimilarUniversities(
+            @PathVariable Long id,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(service.getSimilarUniversities(id, limit));
+    }
+
+    @StatementBudget(2)
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<UniversityStatsResponse> getUniversityStats(@PathVariable Long id) {
+        return ResponseEntity.ok(ratingStatsService.getStats(id));
+    }
+
+    // По умолчанию — последние 24 месяца
+    @StatementBudget(1)
+    @GetMapping("/{id}/trend")
+    public ResponseEntity<List<RatingTrendPoint>> getUniversityTrend(
+            @PathVariable Long id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to
+    ) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(23);
+        return ResponseEntity.ok(ratingTrendService.getTrend(id, start, end));
+    }
+
     @PostMapping
     @org.springframework.security.access.prepost.PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<UniversityResponse> createUniversity(@RequestBody @jakarta.validation.Valid CreateUniversityRequest request) {
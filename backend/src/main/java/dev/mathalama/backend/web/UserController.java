@@ -1,8 +1,12 @@
 package dev.mathalama.backend.web;
 
+import dev.mathalama.backend.config.StatementBudget;
+import dev.mathalama.backend.domain.Role;
 import dev.mathalama.backend.domain.User;
 import dev.mathalama.backend.repository.UserRepository;
+import dev.mathalama.backend.service.UserService;
 import dev.mathalama.backend.web.dto.UpdateUserRequest;
+import dev.mathalama.backend.web.dto.UserDirectoryPage;
 import dev.mathalama.backend.web.dto.UserResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -11,7 +15,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -19,19 +22,24 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserRepository repository;
+    private final UserService userService;
 
+    // Постранично (keyset): курсор следующей страницы — в заголовке X-Next-Cursor
+    @StatementBudget(2)
     @GetMapping
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(repository.findAll().stream()
-                .map(user -> UserResponse.builder()
-                        .id(user.getId())
-                        .email(user.getEmail())
-                        .firstname(user.getFirstname())
-                        .lastname(user.getLastname())
-                        .role(user.getRole())
-                        .build())
-                .collect(Collectors.toList()));
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        UserDirectoryPage page = userService.listUsers(q, role, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @PatchMapping("/profile")
@@ -53,10 +61,18 @@ public class UserController {
                 .build());
     }
 
+    // Завершает все сессии пользователя
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        userService.revokeTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        repository.deleteById(id);
+        userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
 }
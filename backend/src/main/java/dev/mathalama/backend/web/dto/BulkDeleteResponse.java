@@ -0,0 +1,11 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkDeleteResponse {
+    private int deleted;
+    private int affectedUniversities;
+}
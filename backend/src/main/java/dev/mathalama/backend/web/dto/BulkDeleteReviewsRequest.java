@@ -0,0 +1,16 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Либо reviewIds, либо userId и/или universityId; from/to (createdAt, to не включительно) сужают выборку
+@Data
+public class BulkDeleteReviewsRequest {
+    private List<Long> reviewIds;
+    private Long userId;
+    private Long universityId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
@@ -0,0 +1,18 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProjectionStatus {
+    private String name;
+    private boolean durable;
+    // Последний применённый seq журнала review_event
+    private long position;
+    private long lastSeq;
+    // null, пока проекция на этом узле ещё не запускалась
+    private Long lag;
+    // Идёт догоняние или перестройка
+    private boolean busy;
+}
@@ -0,0 +1,18 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RankedUniversity {
+    private Long id;
+    private String name;
+    private String country;
+    private String city;
+    private String logoUrl;
+    private Double averageRating;
+    private int reviewCount;
+    // Взвешенная сумма средних оценок по запрошенным весам
+    private double score;
+}
@@ -0,0 +1,27 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class RatingBreakdown {
+    private String groupBy;
+    // Момент снятия снимка, по которому посчитан ответ
+    private LocalDateTime snapshotAt;
+    private long totalReviews;
+    private List<Group> groups;
+
+    @Data
+    @Builder
+    public static class Group {
+        private String key;
+        private long reviews;
+        // rating, facilities, ... -> средняя оценка
+        private Map<String, Double> averages;
+    }
+}
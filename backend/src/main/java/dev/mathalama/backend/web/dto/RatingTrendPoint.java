@@ -0,0 +1,14 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class RatingTrendPoint {
+    private String month; // YYYY-MM
+    private int reviewCount;
+    private Map<String, Long> sums; // rating, facilities, ... -> сумма оценок за месяц
+}
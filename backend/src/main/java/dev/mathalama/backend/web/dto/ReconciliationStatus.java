@@ -0,0 +1,23 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class ReconciliationStatus {
+    private boolean running;
+    // Прогресс текущего (или последнего) прохода
+    private int chunksDone;
+    private int chunksTotal;
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    private Long lastDurationMs;
+    // histogram, trend, average -> число расходившихся университетов
+    private Map<String, Integer> lastDrift;
+    private Integer lastRepaired;
+    private String lastError;
+}
@@ -1,28 +1,29 @@
 package dev.mathalama.backend.web.dto;
 
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
-@Data
+// Неизменяемый: списки отзывов делятся между запросами в SingleFlightLoader
+@Value
 @Builder
 public class ReviewResponse {
-    private Long id;
-    private String text;
-    private int rating;
-    private int facilities;
-    private int opportunities;
-    private int location;
-    private int internet;
-    private int food;
-    private int difficulty;
-    private String status;
-    private List<String> tags;
-    private String userName; // Анонимно или имя
-    private Long userId;
-    private Long universityId;
-    private String universityName;
-    private LocalDateTime createdAt;
+    Long id;
+    String text;
+    int rating;
+    int facilities;
+    int opportunities;
+    int location;
+    int internet;
+    int food;
+    int difficulty;
+    String status;
+    List<String> tags;
+    String userName; // Анонимно или имя
+    Long userId;
+    Long universityId;
+    String universityName;
+    LocalDateTime createdAt;
 }
@@ -0,0 +1,17 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SimilarUniversity {
+    private Long id;
+    private String name;
+    private String country;
+    private String city;
+    private String logoUrl;
+    private Double averageRating;
+    // 0..1: профиль оценок (75%) и пересечение тегов (25%)
+    private double similarity;
+}
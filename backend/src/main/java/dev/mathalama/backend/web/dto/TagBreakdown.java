@@ -0,0 +1,25 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class TagBreakdown {
+    private String groupBy;
+    private LocalDateTime snapshotAt;
+    private List<Group> groups;
+
+    @Data
+    @Builder
+    public static class Group {
+        private String key;
+        private long reviews;
+        // Тег -> число отзывов с ним, по убыванию
+        private Map<String, Long> tags;
+    }
+}
@@ -0,0 +1,22 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class UniversityComparison {
+    private Long id;
+    private String name;
+    private String country;
+    private String city;
+    private Double averageRating;
+    private long reviewCount;
+    // rating, facilities, ... -> средняя оценка (null, если отзывов нет)
+    private Map<String, Double> averages;
+    // Самые частые теги отзывов, не больше 10
+    private List<String> topTags;
+}
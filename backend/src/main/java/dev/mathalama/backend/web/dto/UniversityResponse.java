@@ -1,18 +1,19 @@
 package dev.mathalama.backend.web.dto;
 
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
 
-@Data
+// Неизменяемый: один экземпляр отдаётся всем запросам, схлопнутым SingleFlightLoader
+@Value
 @Builder
 public class UniversityResponse {
-    private Long id;
-    private String name;
-    private String country;
-    private String city;
-    private String description;
-    private String website;
-    private String logoUrl;
-    private Double averageRating;
-    private java.util.List<String> tags;
+    Long id;
+    String name;
+    String country;
+    String city;
+    String description;
+    String website;
+    String logoUrl;
+    Double averageRating;
+    java.util.List<String> tags;
 }
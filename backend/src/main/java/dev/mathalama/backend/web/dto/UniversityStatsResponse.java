@@ -0,0 +1,22 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class UniversityStatsResponse {
+    private Long universityId;
+    private long reviewCount;
+    // rating, facilities, opportunities, location, internet, food, difficulty
+    private Map<String, DimensionStats> dimensions;
+
+    @Data
+    @Builder
+    public static class DimensionStats {
+        private int[] histogram; // [count of 1, ..., count of 5]
+        private Double average;
+    }
+}
@@ -0,0 +1,15 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class UniversitySuggestion {
+    private Long id;
+    private String name;
+    private String city;
+    private String country;
+}
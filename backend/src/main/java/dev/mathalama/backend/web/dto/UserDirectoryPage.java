@@ -0,0 +1,13 @@
+package dev.mathalama.backend.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class UserDirectoryPage {
+    private List<UserResponse> items;
+    private String nextCursor; // null на последней странице
+}
@@ -16,4 +16,5 @@ public class UserResponse {
     private String firstname;
     private String lastname;
     private Role role;
+    private Long reviewCount; // только в списке пользователей для админа
 }
@@ -0,0 +1,47 @@
+-- Гистограммы для университетов, у которых ещё нет строки university_rating_stats (отзывы до её появления).
+-- Выполняется один раз, до того как узел начнёт сбрасывать дельты RatingAggregator: иначе первую строку
+-- создала бы дельта, и университет с более ранними отзывами навсегда остался бы без них.
+-- Раскладка массива — UniversityRatingStats.slot: измерения в порядке ReviewDimension, оценки 1..5.
+INSERT INTO university_rating_stats (university_id, counts)
+SELECT u.id,
+       ARRAY[
+           count(r.id) FILTER (WHERE r.rating = 1),
+           count(r.id) FILTER (WHERE r.rating = 2),
+           count(r.id) FILTER (WHERE r.rating = 3),
+           count(r.id) FILTER (WHERE r.rating = 4),
+           count(r.id) FILTER (WHERE r.rating = 5),
+           count(r.id) FILTER (WHERE r.facilities = 1),
+           count(r.id) FILTER (WHERE r.facilities = 2),
+           count(r.id) FILTER (WHERE r.facilities = 3),
+           count(r.id) FILTER (WHERE r.facilities = 4),
+           count(r.id) FILTER (WHERE r.facilities = 5),
+           count(r.id) FILTER (WHERE r.opportunities = 1),
+           count(r.id) FILTER (WHERE r.opportunities = 2),
+           count(r.id) FILTER (WHERE r.opportunities = 3),
+           count(r.id) FILTER (WHERE r.opportunities = 4),
+           count(r.id) FILTER (WHERE r.opportunities = 5),
+           count(r.id) FILTER (WHERE r.location = 1),
+           count(r.id) FILTER (WHERE r.location = 2),
+           count(r.id) FILTER (WHERE r.location = 3),
+           count(r.id) FILTER (WHERE r.location = 4),
+           count(r.id) FILTER (WHERE r.location = 5),
+           count(r.id) FILTER (WHERE r.internet = 1),
+           count(r.id) FILTER (WHERE r.internet = 2),
+           count(r.id) FILTER (WHERE r.internet = 3),
+           count(r.id) FILTER (WHERE r.internet = 4),
+           count(r.id) FILTER (WHERE r.internet = 5),
+           count(r.id) FILTER (WHERE r.food = 1),
+           count(r.id) FILTER (WHERE r.food = 2),
+           count(r.id) FILTER (WHERE r.food = 3),
+           count(r.id) FILTER (WHERE r.food = 4),
+           count(r.id) FILTER (WHERE r.food = 5),
+           count(r.id) FILTER (WHERE r.difficulty = 1),
+           count(r.id) FILTER (WHERE r.difficulty = 2),
+           count(r.id) FILTER (WHERE r.difficulty = 3),
+           count(r.id) FILTER (WHERE r.difficulty = 4),
+           count(r.id) FILTER (WHERE r.difficulty = 5)
+       ]::integer[]
+FROM university u LEFT JOIN review r ON r.university_id = u.id
+WHERE NOT EXISTS (SELECT 1 FROM university_rating_stats s WHERE s.university_id = u.id)
+GROUP BY u.id
+ON CONFLICT (university_id) DO NOTHING;
@@ -0,0 +1,9 @@
+-- Индексы каталога пользователей (UserService.listUsers): префиксный поиск и keyset-сортировка по email.
+-- review.user_id нужен и для подсчёта отзывов пользователя, и для удаления пользователя.
+-- CONCURRENTLY не блокирует запись в таблицы; Flyway выполняет такой файл вне транзакции,
+-- поэтому здесь не должно быть других команд. Если построение прервалось, невалидный индекс
+-- нужно удалить вручную (DROP INDEX CONCURRENTLY) — IF NOT EXISTS его пропустит.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_email_c ON _user ((lower(email) COLLATE "C"), id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_lastname_prefix ON _user (lower(lastname) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_firstname_prefix ON _user (lower(firstname) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_user_id ON review (user_id);
@@ -0,0 +1,4 @@
+-- Поиск событий по отзыву: проверка перед DELETED-событием и дозапись отзывов без CREATED (ReviewEventLog).
+-- CONCURRENTLY не блокирует запись в журнал; Flyway выполняет такой файл вне транзакции,
+-- поэтому здесь не должно быть других команд.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_event_review_id ON review_event (review_id);
@@ -0,0 +1,22 @@
+-- Помесячный тренд для университетов, у которых ещё нет ни одной строки university_rating_trend
+-- (отзывы до её появления). Как и V1, выполняется до того, как узел начнёт сбрасывать дельты
+-- RatingAggregator: иначе первую строку создала бы дельта, и более ранние месяцы остались бы пустыми.
+-- Раскладка sums — RatingTrendBackfillJob.sumsSelectSql: суммы оценок в порядке ReviewDimension.
+INSERT INTO university_rating_trend (university_id, period_start, review_count, sums)
+SELECT r.university_id,
+       CAST(date_trunc('month', r.created_at) AS date),
+       count(*),
+       ARRAY[
+           coalesce(sum(r.rating), 0),
+           coalesce(sum(r.facilities), 0),
+           coalesce(sum(r.opportunities), 0),
+           coalesce(sum(r.location), 0),
+           coalesce(sum(r.internet), 0),
+           coalesce(sum(r.food), 0),
+           coalesce(sum(r.difficulty), 0)
+       ]::bigint[]
+FROM review r
+WHERE r.university_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM university_rating_trend t WHERE t.university_id = r.university_id)
+GROUP BY r.university_id, CAST(date_trunc('month', r.created_at) AS date)
+ON CONFLICT (university_id, period_start) DO NOTHING;
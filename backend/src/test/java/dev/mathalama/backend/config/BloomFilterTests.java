@@ -0,0 +1,74 @@
+package dev.mathalama.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    private static final int KEYS = 10_000;
+
+    @Test
+    void putKeysAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put("revoked:jti:" + i);
+        }
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(filter.mightContain("revoked:jti:" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put("revoked:jti:" + i);
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("revoked:user:" + i + "@gmail.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        assertFalse(new BloomFilter(KEYS, 0.01).mightContain("revoked:jti:1"));
+    }
+
+    // Биты ставятся через CAS: одновременные вставки в одно слово не должны терять друг друга
+    @Test
+    void concurrentPutsLoseNoKeys() throws Exception {
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] writers = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                writers[t] = pool.submit(() -> {
+                    for (int i = offset; i < KEYS; i += threads) {
+                        filter.put("revoked:jti:" + i);
+                    }
+                });
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(filter.mightContain("revoked:jti:" + i));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package dev.mathalama.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTests {
+
+    private static final Duration OPEN = Duration.ofMillis(50);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void opensAfterConsecutiveFailuresAndSkipsTheDependency() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, OPEN);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("fallback", breaker.call(this::failing, () -> "fallback"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertEquals("fallback", breaker.call(this::succeeding, () -> "fallback"));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, OPEN);
+        breaker.call(this::failing, () -> "fallback");
+        breaker.call(this::failing, () -> "fallback");
+        breaker.call(this::succeeding, () -> "fallback");
+        breaker.call(this::failing, () -> "fallback");
+        breaker.call(this::failing, () -> "fallback");
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void successfulProbeClosesTheCircuit() throws Exception {
+        CircuitBreaker breaker = open();
+        Thread.sleep(OPEN.toMillis() * 2);
+
+        assertEquals("ok", breaker.call(this::succeeding, () -> "fallback"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedProbeKeepsTheCircuitOpen() throws Exception {
+        CircuitBreaker breaker = open();
+        Thread.sleep(OPEN.toMillis() * 2);
+
+        assertEquals("fallback", breaker.call(this::failing, () -> "fallback"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        int before = calls.get();
+        assertEquals("fallback", breaker.call(this::succeeding, () -> "fallback"));
+        assertEquals(before, calls.get());
+    }
+
+    // Не ошибки доступа к данным — баг вызывающего кода, а не недоступность зависимости
+    @Test
+    void otherExceptionsPropagateAndDoNotCount() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, OPEN);
+        assertThrows(IllegalStateException.class, () -> breaker.call(() -> {
+            throw new IllegalStateException("bug");
+        }, () -> "fallback"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private CircuitBreaker open() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, OPEN);
+        breaker.call(this::failing, () -> "fallback");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private String failing() {
+        calls.incrementAndGet();
+        throw new QueryTimeoutException("Redis command timed out");
+    }
+
+    private String succeeding() {
+        calls.incrementAndGet();
+        return "ok";
+    }
+}
@@ -0,0 +1,130 @@
+package dev.mathalama.backend.config;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Маршрутизация чтения на двух локальных PostgreSQL: primary и "реплика" (отдельный экземпляр с меткой в таблице node)
+class ReadWriteRoutingDataSourceTests {
+
+    private static EmbeddedPostgres primary;
+
+    private EmbeddedPostgres replica;
+    private ReadYourWritesTracker readYourWrites;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeAll
+    static void startPrimary() throws IOException {
+        primary = EmbeddedPostgres.builder().start();
+        mark(primary.getPostgresDatabase(), "primary");
+    }
+
+    @AfterAll
+    static void stopPrimary() throws IOException {
+        primary.close();
+    }
+
+    @BeforeEach
+    void startReplica() throws IOException {
+        replica = EmbeddedPostgres.builder().start();
+        mark(replica.getPostgresDatabase(), "replica");
+
+        readYourWrites = new ReadYourWritesTracker(Duration.ofSeconds(10));
+        routing = new ReadWriteRoutingDataSource(primary.getPostgresDatabase(), List.of(replica.getPostgresDatabase()),
+                Duration.ofSeconds(5), readYourWrites);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void stopReplica() throws IOException {
+        SecurityContextHolder.clearContext();
+        if (replica != null) {
+            replica.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals(1, routing.usableReplicas());
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        // Вне транзакции — тоже primary
+        assertEquals("primary", node());
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() throws IOException {
+        replica.close();
+        replica = null;
+        routing.checkReplicas();
+
+        assertEquals(0, routing.usableReplicas());
+        assertEquals("primary", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        // Подменяем функции восстановления: реплика "в recovery" и применила последнюю транзакцию минуту назад
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica.getPostgresDatabase());
+        replicaJdbc.execute("CREATE FUNCTION public.pg_is_in_recovery() RETURNS boolean AS 'SELECT true' LANGUAGE sql");
+        replicaJdbc.execute("CREATE FUNCTION public.pg_last_wal_receive_lsn() RETURNS pg_lsn AS 'SELECT pg_lsn ''0/2''' LANGUAGE sql");
+        replicaJdbc.execute("CREATE FUNCTION public.pg_last_wal_replay_lsn() RETURNS pg_lsn AS 'SELECT pg_lsn ''0/1''' LANGUAGE sql");
+        replicaJdbc.execute("CREATE FUNCTION public.pg_last_xact_replay_timestamp() RETURNS timestamptz "
+                + "AS 'SELECT now() - interval ''1 minute''' LANGUAGE sql");
+        replicaJdbc.execute("ALTER DATABASE postgres SET search_path = public, pg_catalog");
+        routing.checkReplicas();
+
+        assertEquals(0, routing.usableReplicas());
+        assertEquals("primary", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void userIsPinnedToThePrimaryAfterAWrite() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("student@gmail.com", null));
+        assertEquals("replica", readOnly.execute(status -> node()));
+
+        readYourWrites.markWrite("student@gmail.com");
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        // Другой пользователь по-прежнему читает с реплики
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("other@gmail.com", null));
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void mark(DataSource dataSource, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name text)");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+    }
+}
@@ -0,0 +1,51 @@
+package dev.mathalama.backend.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Сравнение времени выдачи токена с моментом отзыва всех токенов пользователя
+class TokenRevocationServiceTests {
+
+    private static final long REVOKED_AT = 1_767_225_600_123L;
+
+    @Test
+    void tokenIssuedInTheSameSecondAfterRevocationStaysValid() {
+        Claims claims = Jwts.claims();
+        claims.setIssuedAt(new Date(REVOKED_AT / 1000 * 1000));
+        claims.put(JwtService.ISSUED_AT_MILLIS, REVOKED_AT + 1);
+
+        assertTrue(JwtService.issuedAtMillis(claims) > TokenRevocationService.cutoffMillis(Long.toString(REVOKED_AT)));
+    }
+
+    @Test
+    void tokenIssuedBeforeRevocationIsRevoked() {
+        Claims claims = Jwts.claims();
+        claims.put(JwtService.ISSUED_AT_MILLIS, REVOKED_AT - 1);
+
+        assertTrue(JwtService.issuedAtMillis(claims) <= TokenRevocationService.cutoffMillis(Long.toString(REVOKED_AT)));
+    }
+
+    // Токены, выданные до появления iat_ms, считаются выданными в конце своей секунды
+    @Test
+    void tokenWithoutMillisUsesEndOfItsSecond() {
+        Claims claims = Jwts.claims();
+        claims.setIssuedAt(new Date(REVOKED_AT / 1000 * 1000));
+
+        assertEquals(REVOKED_AT / 1000 * 1000 + 999, JwtService.issuedAtMillis(claims));
+        assertNull(JwtService.issuedAtMillis(Jwts.claims()));
+    }
+
+    // Ключи revoked:user:*, записанные в секундах, отзывают всё до конца той секунды
+    @Test
+    void cutoffStoredInSecondsCoversTheWholeSecond() {
+        assertEquals(REVOKED_AT / 1000 * 1000 + 999, TokenRevocationService.cutoffMillis(Long.toString(REVOKED_AT / 1000)));
+        assertEquals(REVOKED_AT, TokenRevocationService.cutoffMillis(Long.toString(REVOKED_AT)));
+    }
+}
@@ -0,0 +1,281 @@
+package dev.mathalama.backend.eventlog;
+
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.ReviewEvent;
+import dev.mathalama.backend.domain.Role;
+import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.domain.User;
+import dev.mathalama.backend.repository.ReviewRepository;
+import dev.mathalama.backend.repository.UniversityRepository;
+import dev.mathalama.backend.repository.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Журнал событий отзывов: запись при коммите, порядок seq, дозапись старых отзывов и перестройка проекции
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class ReviewEventLogTests {
+
+    @Autowired
+    private ReviewEventLog eventLog;
+
+    @Autowired
+    private ProjectionRunner projectionRunner;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private University university;
+    private User author;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE review_event, projection_checkpoint, university_tag_stats, review, "
+                + "university_rating_stats, university_rating_trend, university, _user RESTART IDENTITY CASCADE");
+        university = universityRepository.save(University.builder().name("КазНУ").city("Алматы").country("Казахстан").averageRating(0.0).build());
+        author = userRepository.save(User.builder()
+                .email("student@gmail.com")
+                .firstname("Test")
+                .lastname("User")
+                .password("{noop}password")
+                .role(Role.USER)
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    void appendIsWrittenAtCommitWithTheReviewSnapshot() {
+        Review review = transactionTemplate.execute(status -> {
+            Review saved = reviewRepository.save(review("IT,спорт"));
+            eventLog.append(ReviewEvent.Type.CREATED, saved);
+            assertEquals(0, eventCount(), "the event waits for the commit");
+            return saved;
+        });
+
+        List<ReviewEvent> events = eventLog.read(0, 10);
+        assertEquals(1, events.size());
+        ReviewEvent event = events.get(0);
+        assertEquals(ReviewEvent.Type.CREATED, event.getType());
+        assertEquals(review.getId(), event.getReviewId());
+        assertEquals(university.getId(), event.getUniversityId());
+        assertEquals(author.getId(), event.getUserId());
+        assertEquals(4, event.getRating());
+        assertEquals("IT,спорт", event.getTags());
+        assertEquals("Отзыв", event.getText());
+        assertEquals(event.getSeq(), eventLog.lastSeq());
+    }
+
+    @Test
+    void rolledBackTransactionLogsNothing() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            eventLog.append(ReviewEvent.Type.CREATED, reviewRepository.save(review("IT")));
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(0, eventCount());
+    }
+
+    @Test
+    void openTransactionDoesNotBlockOtherAppends() throws Exception {
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            eventLog.append(ReviewEvent.Type.CREATED, reviewRepository.save(review("IT")));
+            appended.countDown();
+            await(commit);
+        }));
+        assertTrue(appended.await(10, TimeUnit.SECONDS));
+
+        // Журнал блокируется только при коммите, поэтому вторая транзакция не ждёт первую
+        CompletableFuture<Void> fast = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status ->
+                eventLog.append(ReviewEvent.Type.CREATED, reviewRepository.save(review("спорт")))));
+        fast.get(5, TimeUnit.SECONDS);
+        assertEquals(1, eventCount());
+
+        commit.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+        List<ReviewEvent> events = eventLog.read(0, 10);
+        assertEquals(2, events.size());
+        assertEquals("спорт", events.get(0).getTags());
+        assertEquals("IT", events.get(1).getTags());
+        assertTrue(events.get(0).getSeq() < events.get(1).getSeq());
+    }
+
+    @Test
+    void deleteReviewsLogsDeletedOnlyForLoggedReviews() {
+        Review logged = transactionTemplate.execute(status -> {
+            Review saved = reviewRepository.save(review("IT"));
+            eventLog.append(ReviewEvent.Type.CREATED, saved);
+            return saved;
+        });
+        Review unlogged = reviewRepository.save(review("спорт"));
+
+        List<ReviewEventLog.Deleted> deleted = transactionTemplate.execute(status ->
+                eventLog.deleteReviews("university_id = ?", university.getId()));
+
+        assertEquals(2, deleted.size());
+        assertEquals(0, reviewRepository.count());
+        List<ReviewEvent> events = eventLog.read(0, 10);
+        assertEquals(2, events.size());
+        assertEquals(ReviewEvent.Type.DELETED, events.get(1).getType());
+        assertEquals(logged.getId(), events.get(1).getReviewId());
+        assertEquals("IT", events.get(1).getTags());
+        assertNull(events.get(1).getText());
+        assertTrue(events.stream().noneMatch(event -> event.getReviewId().equals(unlogged.getId())));
+    }
+
+    // Массовое удаление держит блокировку журнала только на один INSERT ... SELECT из временной таблицы
+    @Test
+    void singleCommitIsNotHeldUpByALargeBulkDelete() throws Exception {
+        int bulk = 50_000;
+        jdbcTemplate.update("""
+                INSERT INTO review (text, rating, facilities, opportunities, location, internet, food, difficulty,
+                                    status, tags, university_id, user_id, created_at)
+                SELECT 'Отзыв', 4, 3, 5, 4, 2, 3, 4, 'Current Student', 'IT', ?, ?, localtimestamp
+                FROM generate_series(1, ?)
+                """, university.getId(), author.getId(), bulk);
+        eventLog.backfill();
+        assertEquals(bulk, eventCount());
+
+        CountDownLatch deleted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> bulkDelete = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(bulk, eventLog.deleteReviews("university_id = ?", university.getId()).size());
+            deleted.countDown();
+            await(commit);
+        }));
+        assertTrue(deleted.await(60, TimeUnit.SECONDS));
+
+        // Оба коммита стартуют одновременно: одиночный ждёт самое большее вставку пачки под блокировкой
+        commit.countDown();
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status ->
+                eventLog.append(ReviewEvent.Type.CREATED, reviewRepository.save(review("спорт"))));
+        long singleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        bulkDelete.get(60, TimeUnit.SECONDS);
+
+        assertTrue(singleMillis < 2_000, "single-review commit waited " + singleMillis + " ms behind the bulk delete");
+        assertEquals(2 * bulk + 1, eventCount());
+        Integer deletedEvents = jdbcTemplate.queryForObject("SELECT count(*) FROM review_event WHERE type = 'DELETED'", Integer.class);
+        assertEquals(bulk, deletedEvents);
+    }
+
+    @Test
+    void backfillAppendsReviewsWithoutEventsOnce() {
+        Review first = reviewRepository.save(review("IT"));
+        Review second = transactionTemplate.execute(status -> {
+            Review saved = reviewRepository.save(review("спорт"));
+            eventLog.append(ReviewEvent.Type.CREATED, saved);
+            return saved;
+        });
+        Review third = reviewRepository.save(review("IT,спорт"));
+
+        eventLog.backfill();
+        eventLog.backfill();
+
+        List<ReviewEvent> events = eventLog.read(0, 10);
+        assertEquals(List.of(second.getId(), first.getId(), third.getId()),
+                events.stream().map(ReviewEvent::getReviewId).toList());
+        assertTrue(events.stream().allMatch(event -> event.getType() == ReviewEvent.Type.CREATED));
+        assertEquals("Отзыв", events.get(1).getText());
+    }
+
+    @Test
+    void readReplaysEventsInSeqOrderFromAPosition() {
+        for (int i = 0; i < 5; i++) {
+            transactionTemplate.executeWithoutResult(status ->
+                    eventLog.append(ReviewEvent.Type.CREATED, reviewRepository.save(review("IT"))));
+        }
+
+        List<ReviewEvent> all = eventLog.read(0, 10);
+        List<ReviewEvent> tail = eventLog.read(all.get(1).getSeq(), 2);
+
+        assertEquals(5, all.size());
+        assertEquals(List.of(all.get(2).getSeq(), all.get(3).getSeq()), tail.stream().map(ReviewEvent::getSeq).toList());
+        assertTrue(eventLog.read(eventLog.lastSeq(), 10).isEmpty());
+    }
+
+    @Test
+    void tagStatsProjectionIsRebuiltAndCaughtUpFromTheLog() {
+        Review first = transactionTemplate.execute(status -> {
+            Review saved = reviewRepository.save(review("IT, спорт"));
+            eventLog.append(ReviewEvent.Type.CREATED, saved);
+            return saved;
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventLog.append(ReviewEvent.Type.CREATED, reviewRepository.save(review("IT"))));
+
+        projectionRunner.rebuild(UniversityTagStatsProjection.NAME);
+        assertEquals(2, tagCount("IT"));
+        assertEquals(1, tagCount("спорт"));
+
+        transactionTemplate.executeWithoutResult(status -> eventLog.deleteReviews("id = ?", first.getId()));
+        projectionRunner.catchUp();
+        assertEquals(1, tagCount("IT"));
+        assertEquals(0, tagCount("спорт"));
+
+        // Перестройка с нуля даёт то же состояние
+        projectionRunner.rebuild(UniversityTagStatsProjection.NAME);
+        assertEquals(1, tagCount("IT"));
+        assertEquals(0, tagCount("спорт"));
+        assertEquals(eventLog.lastSeq(), jdbcTemplate.queryForObject(
+                "SELECT position FROM projection_checkpoint WHERE name = ?", Long.class, UniversityTagStatsProjection.NAME));
+    }
+
+    private Review review(String tags) {
+        return Review.builder()
+                .text("Отзыв")
+                .rating(4).facilities(3).opportunities(5).location(4).internet(2).food(3).difficulty(4)
+                .status("Current Student")
+                .tags(tags)
+                .university(university)
+                .user(author)
+                .build();
+    }
+
+    private int eventCount() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM review_event", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private int tagCount(String tag) {
+        Integer count = jdbcTemplate.query("SELECT review_count FROM university_tag_stats WHERE university_id = ? AND tag = ?",
+                rs -> rs.next() ? rs.getInt(1) : 0, university.getId(), tag);
+        return count != null ? count : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
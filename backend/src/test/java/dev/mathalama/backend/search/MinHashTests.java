@@ -0,0 +1,72 @@
+package dev.mathalama.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashTests {
+
+    private static final String TEXT = """
+            Очень сильный факультет информатики, преподаватели всегда готовы помочь после пар,
+            в библиотеке есть всё нужное, общежитие рядом с корпусом, но столовая работает
+            только до четырёх часов и интернет в аудиториях часто пропадает во время занятий
+            """;
+
+    @Test
+    void signatureIgnoresCaseAndPunctuation() {
+        int[] signature = MinHash.signature(TEXT, 8);
+        assertNotNull(signature);
+        assertEquals(MinHash.PERMUTATIONS, signature.length);
+        assertArrayEquals(signature, MinHash.signature(TEXT.toUpperCase().replace(",", " ; "), 8));
+    }
+
+    @Test
+    void shortTextHasNoSignature() {
+        assertNull(MinHash.signature("Хороший университет, всем советую", 8));
+    }
+
+    @Test
+    void nearDuplicateIsSimilarAndSharesABand() {
+        int[] original = MinHash.signature(TEXT, 8);
+        int[] edited = MinHash.signature(TEXT.replace("четырёх", "пяти"), 8);
+
+        assertTrue(MinHash.similarity(original, edited) >= 0.6, "one changed word keeps most shingles");
+        assertTrue(sharesBand(original, edited));
+    }
+
+    @Test
+    void unrelatedTextsAreNotSimilar() {
+        int[] original = MinHash.signature(TEXT, 8);
+        int[] other = MinHash.signature("""
+                Кампус далеко от центра города, автобусы ходят редко, зато лаборатории
+                по химии и биологии новые, а стипендию платят без задержек каждый месяц
+                """, 8);
+
+        assertTrue(MinHash.similarity(original, other) < 0.2);
+    }
+
+    @Test
+    void identicalSignaturesHaveIdenticalBandKeys() {
+        int[] signature = MinHash.signature(TEXT, 8);
+        assertEquals(1.0, MinHash.similarity(signature, signature.clone()));
+        assertArrayEquals(MinHash.bandKeys(signature), MinHash.bandKeys(signature.clone()));
+        assertEquals(MinHash.BANDS, Arrays.stream(MinHash.bandKeys(signature)).distinct().count());
+    }
+
+    private static boolean sharesBand(int[] a, int[] b) {
+        long[] keysA = MinHash.bandKeys(a);
+        long[] keysB = MinHash.bandKeys(b);
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            if (keysA[band] == keysB[band]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+package dev.mathalama.backend.search;
+
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.Role;
+import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.domain.User;
+import dev.mathalama.backend.repository.ReviewRepository;
+import dev.mathalama.backend.repository.UniversityRepository;
+import dev.mathalama.backend.repository.UserRepository;
+import dev.mathalama.backend.service.ReviewModerationService;
+import dev.mathalama.backend.web.dto.BulkDeleteReviewsRequest;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Без Redis сообщения индекса применяются на этом же узле, поэтому всё проверяется в одном контексте
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class ReviewDuplicateIndexTests {
+
+    private static final String TEXT = """
+            Очень сильный факультет информатики, преподаватели всегда готовы помочь после пар,
+            в библиотеке есть всё нужное, общежитие рядом с корпусом, но столовая работает
+            только до четырёх часов и интернет в аудиториях часто пропадает во время занятий
+            """;
+
+    @Autowired
+    private ReviewDuplicateIndex index;
+
+    @Autowired
+    private ReviewModerationService moderationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private University university;
+    private Review review;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE review, university_rating_stats, university_rating_trend, university, _user RESTART IDENTITY CASCADE");
+        university = universityRepository.save(University.builder().name("КазНУ").city("Алматы").country("Казахстан").averageRating(0.0).build());
+        User author = userRepository.save(User.builder()
+                .email("student@gmail.com")
+                .firstname("Test")
+                .lastname("User")
+                .password("{noop}password")
+                .role(Role.USER)
+                .enabled(true)
+                .build());
+        review = reviewRepository.save(Review.builder()
+                .text(TEXT)
+                .rating(4).facilities(3).opportunities(5).location(4).internet(2).food(3).difficulty(4)
+                .status("Current Student")
+                .university(university)
+                .user(author)
+                .build());
+        index.rebuild();
+    }
+
+    @Test
+    void rebuildIndexesExistingReviews() {
+        ReviewDuplicateIndex.Match match = index.findNearDuplicate(MinHash.signature(TEXT.replace("четырёх", "пяти"), 8));
+
+        assertNotNull(match);
+        assertEquals(review.getId(), match.reviewId());
+        assertEquals(university.getId(), match.universityId());
+    }
+
+    @Test
+    void flagKeepsNearDuplicatesAcceptable() {
+        // По умолчанию FLAG: отзыв только помечается в логе и метрике
+        assertNotNull(index.check(TEXT));
+    }
+
+    @Test
+    void indexedAndRemovedSignaturesAreApplied() {
+        int[] signature = MinHash.signature(TEXT + " и парковки нет", 8);
+        index.indexAfterCommit(1000L, university.getId(), signature);
+        assertEquals(2, index.size());
+
+        index.removeAllAfterCommit(List.of(review.getId(), 1000L));
+        assertEquals(0, index.size());
+        assertNull(index.findNearDuplicate(signature));
+    }
+
+    @Test
+    void bulkDeleteRemovesReviewsFromIndex() {
+        BulkDeleteReviewsRequest request = new BulkDeleteReviewsRequest();
+        request.setUniversityId(university.getId());
+        moderationService.bulkDelete(request);
+
+        assertEquals(0, index.size());
+        assertNull(index.findNearDuplicate(MinHash.signature(TEXT, 8)));
+    }
+}
@@ -0,0 +1,88 @@
+package dev.mathalama.backend.search;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UniversityProfilesTests {
+
+    @Test
+    void ofSortsRowsById() {
+        UniversityProfiles profiles = UniversityProfiles.of(rows(row(30, 3f), row(10, 1f), row(20, 2f)));
+
+        assertArrayEquals(new long[]{10, 20, 30}, ids(profiles));
+        assertEquals(2f, profiles.average(ReviewDimension.RATING, profiles.indexOf(20)));
+        assertEquals(-1, profiles.indexOf(15));
+    }
+
+    @Test
+    void mergeInsertsReplacesAndRemovesInOnePass() {
+        UniversityProfiles previous = UniversityProfiles.of(rows(row(10, 1f), row(20, 2f), row(30, 3f), row(40, 4f)));
+
+        UniversityProfiles next = previous.merge(rows(row(5, 5f), row(20, 4.5f), row(35, 3.5f), row(50, 5f)), Set.of(30L));
+
+        assertArrayEquals(new long[]{5, 10, 20, 35, 40, 50}, ids(next));
+        assertEquals(4.5f, next.average(ReviewDimension.RATING, next.indexOf(20)));
+        assertEquals(1f, next.average(ReviewDimension.RATING, next.indexOf(10)));
+        assertEquals(4f, next.average(ReviewDimension.RATING, next.indexOf(40)));
+        assertEquals(7, next.reviewCount(next.indexOf(35)));
+        // Старый снимок не меняется
+        assertArrayEquals(new long[]{10, 20, 30, 40}, ids(previous));
+        assertEquals(2f, previous.average(ReviewDimension.RATING, previous.indexOf(20)));
+    }
+
+    @Test
+    void removedWinsOverChangedRow() {
+        UniversityProfiles previous = UniversityProfiles.of(rows(row(10, 1f), row(20, 2f)));
+
+        UniversityProfiles next = previous.merge(rows(row(20, 3f), row(25, 3f)), Set.of(20L, 25L, 99L));
+
+        assertArrayEquals(new long[]{10}, ids(next));
+    }
+
+    @Test
+    void mergeKeepsTagsOfUntouchedRows() {
+        long[] mask = UniversityProfiles.tagMask(List.of("общежитие", "IT"));
+        UniversityProfiles previous = UniversityProfiles.of(rows(
+                new UniversityProfiles.Row(10, averages(4f), 7, mask[0], mask[1]), row(20, 2f)));
+
+        UniversityProfiles next = previous.merge(rows(row(15, 3f)), Set.of(20L));
+
+        int row = next.indexOf(10);
+        assertEquals(mask[0], next.tagsLow[row]);
+        assertEquals(mask[1], next.tagsHigh[row]);
+        assertArrayEquals(mask, UniversityProfiles.tagMask(List.of(" IT ", "Общежитие")));
+    }
+
+    private static long[] ids(UniversityProfiles profiles) {
+        long[] ids = new long[profiles.size()];
+        for (int row = 0; row < ids.length; row++) {
+            ids[row] = profiles.id(row);
+        }
+        return ids;
+    }
+
+    private static SortedMap<Long, UniversityProfiles.Row> rows(UniversityProfiles.Row... rows) {
+        SortedMap<Long, UniversityProfiles.Row> result = new TreeMap<>();
+        Arrays.stream(rows).forEach(row -> result.put(row.id(), row));
+        return result;
+    }
+
+    private static UniversityProfiles.Row row(long id, float rating) {
+        return new UniversityProfiles.Row(id, averages(rating), 7, 0, 0);
+    }
+
+    private static float[] averages(float value) {
+        float[] averages = new float[UniversityProfiles.DIMENSIONS];
+        Arrays.fill(averages, value);
+        return averages;
+    }
+}
@@ -0,0 +1,123 @@
+package dev.mathalama.backend.search;
+
+import dev.mathalama.backend.domain.ReviewDimension;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniversityRankingTests {
+
+    @Test
+    void parseWeightsFillsNamedDimensions() {
+        float[] weights = UniversityRanking.parseWeights("food:2, difficulty:-1,,");
+
+        assertEquals(2f, weights[ReviewDimension.FOOD.ordinal()]);
+        assertEquals(-1f, weights[ReviewDimension.DIFFICULTY.ordinal()]);
+        assertEquals(0f, weights[ReviewDimension.RATING.ordinal()]);
+    }
+
+    @Test
+    void parseWeightsRejectsNonFiniteAndMalformedWeightsAsBadRequest() {
+        for (String weights : new String[]{"food:NaN", "food:Infinity", "food:-Infinity", "food:1e40", "food", "food:x", "taste:1"}) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> UniversityRanking.parseWeights(weights), weights);
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode(), weights);
+        }
+    }
+
+    // Каждый вес конечен, но сумма w * average переполнилась бы: inf + -inf = NaN
+    @Test
+    void parseWeightsRejectsWeightsBeyondTheBound() {
+        for (String weights : new String[]{"food:3e38,difficulty:-3e38", "food:1000.5", "difficulty:-1001"}) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> UniversityRanking.parseWeights(weights), weights);
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode(), weights);
+        }
+        float[] weights = UniversityRanking.parseWeights("food:1000,difficulty:-1000");
+
+        SortedMap<Long, UniversityProfiles.Row> rows = new TreeMap<>();
+        float[] averages = new float[UniversityProfiles.DIMENSIONS];
+        Arrays.fill(averages, 5f);
+        rows.put(1L, new UniversityProfiles.Row(1, averages, 3, 0, 0));
+        rows.put(2L, row(2, 1f, 3));
+        UniversityRanking.Ranked[] top = ranking(UniversityProfiles.of(rows)).top(weights, 10, 0);
+
+        assertTrue(Arrays.stream(top).allMatch(ranked -> Float.isFinite(ranked.score())));
+        assertArrayEquals(new long[]{2, 1}, Arrays.stream(top).mapToLong(UniversityRanking.Ranked::universityId).toArray());
+    }
+
+    @Test
+    void topMatchesFullSortForRandomScores() {
+        Random random = new Random(7);
+        SortedMap<Long, UniversityProfiles.Row> rows = new TreeMap<>();
+        for (long id = 1; id <= 500; id++) {
+            float[] averages = new float[UniversityProfiles.DIMENSIONS];
+            for (int d = 0; d < averages.length; d++) {
+                averages[d] = 1 + random.nextFloat() * 4;
+            }
+            rows.put(id, new UniversityProfiles.Row(id, averages, random.nextInt(5), 0, 0));
+        }
+        UniversityRanking ranking = ranking(UniversityProfiles.of(rows));
+        float[] weights = UniversityRanking.parseWeights("food:1.5,opportunities:2,difficulty:-1");
+
+        UniversityRanking.Ranked[] top = ranking.top(weights, 20, 2);
+
+        long[] expected = rows.values().stream()
+                .filter(row -> row.reviewCount() >= 2)
+                .sorted(Comparator.comparingDouble((UniversityProfiles.Row row) -> score(row, weights)).reversed())
+                .limit(20)
+                .mapToLong(UniversityProfiles.Row::id)
+                .toArray();
+        assertArrayEquals(expected, Arrays.stream(top).mapToLong(UniversityRanking.Ranked::universityId).toArray());
+        for (int i = 1; i < top.length; i++) {
+            assertTrue(top[i - 1].score() >= top[i].score());
+        }
+    }
+
+    @Test
+    void universitiesWithoutReviewsAreSkippedAndLimitIsCapped() {
+        SortedMap<Long, UniversityProfiles.Row> rows = new TreeMap<>();
+        rows.put(1L, row(1, 5f, 0));
+        rows.put(2L, row(2, 2f, 3));
+        rows.put(3L, row(3, 4f, 1));
+        UniversityRanking ranking = ranking(UniversityProfiles.of(rows));
+
+        UniversityRanking.Ranked[] top = ranking.top(UniversityRanking.parseWeights("food:1"), UniversityRanking.MAX_LIMIT + 50, 0);
+
+        assertArrayEquals(new long[]{3, 2}, Arrays.stream(top).mapToLong(UniversityRanking.Ranked::universityId).toArray());
+        assertEquals(4f, top[0].score());
+        assertEquals(3, top[1].reviewCount());
+    }
+
+    private static UniversityRanking ranking(UniversityProfiles profiles) {
+        UniversityProfileStore store = new UniversityProfileStore(null);
+        store.replace(profiles);
+        return new UniversityRanking(store);
+    }
+
+    private static UniversityProfiles.Row row(long id, float food, int reviewCount) {
+        float[] averages = new float[UniversityProfiles.DIMENSIONS];
+        averages[ReviewDimension.FOOD.ordinal()] = food;
+        return new UniversityProfiles.Row(id, averages, reviewCount, 0, 0);
+    }
+
+    // Тот же порядок сложения, что и в UniversityRanking.top, чтобы float-оценки совпадали
+    private static float score(UniversityProfiles.Row row, float[] weights) {
+        float score = 0f;
+        for (int d = 0; d < weights.length; d++) {
+            if (weights[d] != 0f) {
+                score += weights[d] * row.averages()[d];
+            }
+        }
+        return score;
+    }
+}
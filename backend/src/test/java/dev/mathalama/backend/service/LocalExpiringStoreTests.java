@@ -0,0 +1,101 @@
+package dev.mathalama.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalExpiringStoreTests {
+
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    @Test
+    void findsEntriesByIdAndEmail() {
+        LocalExpiringStore<String> store = new LocalExpiringStore<>(10);
+        store.put("token-1", "student@gmail.com", "value-1", TTL);
+
+        assertEquals(Optional.of("value-1"), store.findById("token-1"));
+        assertEquals(Optional.of("value-1"), store.findByEmail("student@gmail.com"));
+        assertEquals(Optional.empty(), store.findById("token-2"));
+    }
+
+    @Test
+    void newTokenForTheSameEmailReplacesTheEmailIndex() {
+        LocalExpiringStore<String> store = new LocalExpiringStore<>(10);
+        store.put("token-1", "student@gmail.com", "value-1", TTL);
+        store.put("token-2", "student@gmail.com", "value-2", TTL);
+
+        assertEquals(Optional.of("value-2"), store.findByEmail("student@gmail.com"));
+        store.discard("token-1");
+        assertEquals(Optional.of("value-2"), store.findByEmail("student@gmail.com"));
+    }
+
+    @Test
+    void expiredEntriesAreNotReturnedOrReplayed() throws Exception {
+        LocalExpiringStore<String> store = new LocalExpiringStore<>(10);
+        store.put("token-1", "student@gmail.com", "value-1", Duration.ofMillis(1));
+        Thread.sleep(10);
+
+        assertEquals(Optional.empty(), store.findById("token-1"));
+        assertTrue(store.pendingEntries().isEmpty());
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void evictsOldestEntriesBeyondCapacity() {
+        LocalExpiringStore<String> store = new LocalExpiringStore<>(2);
+        store.put("token-1", "a@gmail.com", "value-1", TTL);
+        store.put("token-2", "b@gmail.com", "value-2", TTL);
+        store.put("token-3", "c@gmail.com", "value-3", TTL);
+
+        assertEquals(2, store.size());
+        assertEquals(Optional.empty(), store.findById("token-1"));
+        assertEquals(Optional.empty(), store.findByEmail("a@gmail.com"));
+        assertEquals(Optional.of("value-3"), store.findById("token-3"));
+    }
+
+    @Test
+    void deleteLeavesATombstoneUntilReplayed() {
+        LocalExpiringStore<String> store = new LocalExpiringStore<>(10);
+        store.put("token-1", "student@gmail.com", "value-1", TTL);
+        store.delete("token-1", TTL);
+
+        assertEquals(Optional.empty(), store.findById("token-1"));
+        assertTrue(store.isDeleted("token-1"));
+        assertEquals(List.of("token-1"), store.pendingDeletes());
+
+        store.removeReplayedDelete("token-1");
+        assertFalse(store.isDeleted("token-1"));
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void putAfterDeleteClearsTheTombstone() {
+        LocalExpiringStore<String> store = new LocalExpiringStore<>(10);
+        store.delete("token-1", TTL);
+        store.put("token-1", "student@gmail.com", "value-1", TTL);
+
+        assertFalse(store.isDeleted("token-1"));
+        assertEquals(Optional.of("value-1"), store.findById("token-1"));
+    }
+
+    // Запись, заменённая во время репликации, остаётся до следующего прохода
+    @Test
+    void removeReplayedKeepsEntriesReplacedMeanwhile() {
+        LocalExpiringStore<String> store = new LocalExpiringStore<>(10);
+        store.put("token-1", "student@gmail.com", "value-1", TTL);
+        LocalExpiringStore.Entry<String> replayed = store.pendingEntries().get(0);
+        store.put("token-1", "student@gmail.com", "value-2", TTL);
+
+        store.removeReplayed(replayed);
+        assertEquals(Optional.of("value-2"), store.findById("token-1"));
+
+        store.removeReplayed(store.pendingEntries().get(0));
+        assertTrue(store.isEmpty());
+    }
+}
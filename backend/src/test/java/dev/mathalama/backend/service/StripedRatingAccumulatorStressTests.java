@@ -0,0 +1,156 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.UniversityRatingStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Писатели и флашер работают одновременно, часть флашей "падает" и возвращает дельты через restore:
+// итоговые суммы в "базе" должны совпасть с суммой всех записанных дельт до единицы
+class StripedRatingAccumulatorStressTests {
+
+    private static final int WRITERS = 16;
+    private static final int OPERATIONS_PER_WRITER = 50_000;
+    private static final int UNIVERSITIES = 64;
+    private static final LocalDate[] PERIODS = {
+            LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1)
+    };
+
+    @Test
+    void concurrentWritesAndFlushesLoseNothing() throws Exception {
+        StripedRatingAccumulator accumulator = new StripedRatingAccumulator(8);
+        Database expected = new Database();
+        Database flushed = new Database();
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            Future<?>[] writers = new Future<?>[WRITERS];
+            for (int w = 0; w < WRITERS; w++) {
+                writers[w] = pool.submit(() -> {
+                    Database local = new Database();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+                        long universityId = random.nextInt(UNIVERSITIES) + 1;
+                        int sign = random.nextInt(4) == 0 ? -1 : 1;
+                        int[] counts = new int[UniversityRatingStats.SIZE];
+                        counts[random.nextInt(counts.length)] = sign;
+                        long[] bucket = new long[StripedRatingAccumulator.BUCKET_SIZE];
+                        bucket[0] = sign;
+                        for (int d = 1; d < bucket.length; d++) {
+                            bucket[d] = (long) sign * (random.nextInt(5) + 1);
+                        }
+                        LocalDate period = PERIODS[random.nextInt(PERIODS.length)];
+                        accumulator.add(universityId, counts, period, bucket);
+                        local.apply(universityId, counts, period, bucket);
+                    }
+                    synchronized (expected) {
+                        expected.merge(local);
+                    }
+                    return null;
+                });
+            }
+
+            Future<?> flusher = pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (writing.get()) {
+                    TreeMap<Long, StripedRatingAccumulator.Pending> batch = accumulator.drain();
+                    if (random.nextInt(5) == 0) {
+                        accumulator.restore(batch); // неудачный flush
+                    } else {
+                        batch.forEach(flushed::apply);
+                    }
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            flusher.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        accumulator.drain().forEach(flushed::apply);
+
+        assertEquals(0, accumulator.pendingUniversities());
+        assertEquals(expected.counts.keySet(), flushed.counts.keySet());
+        for (Long universityId : expected.counts.keySet()) {
+            assertArrayEquals(expected.counts.get(universityId), flushed.counts.get(universityId),
+                    "histogram of university " + universityId);
+            for (LocalDate period : PERIODS) {
+                String key = universityId + "/" + period;
+                assertArrayEquals(expected.buckets.get(key), flushed.buckets.get(key), "trend bucket " + key);
+            }
+        }
+    }
+
+    @Test
+    void discardDropsOnlyGivenUniversities() {
+        StripedRatingAccumulator accumulator = new StripedRatingAccumulator(4);
+        long[] bucket = new long[StripedRatingAccumulator.BUCKET_SIZE];
+        for (long id = 1; id <= 10; id++) {
+            accumulator.add(id, new int[UniversityRatingStats.SIZE], PERIODS[0], bucket);
+        }
+
+        accumulator.discard(List.of(2L, 4L, 6L));
+
+        assertEquals(Set.of(1L, 3L, 5L, 7L, 8L, 9L, 10L), accumulator.drain().keySet());
+    }
+
+    // Модель таблиц university_rating_stats / university_rating_trend
+    private static final class Database {
+        final Map<Long, int[]> counts = new HashMap<>();
+        final Map<String, long[]> buckets = new HashMap<>();
+
+        void apply(Long universityId, int[] countsDelta, LocalDate period, long[] bucketDelta) {
+            addCounts(universityId, countsDelta);
+            addBucket(universityId + "/" + period, bucketDelta);
+        }
+
+        void apply(Long universityId, StripedRatingAccumulator.Pending pending) {
+            addCounts(universityId, pending.counts);
+            pending.buckets.forEach((period, delta) -> addBucket(universityId + "/" + period, delta));
+        }
+
+        void merge(Database other) {
+            other.counts.forEach(this::addCounts);
+            other.buckets.forEach(this::addBucket);
+        }
+
+        private void addCounts(Long universityId, int[] delta) {
+            int[] stored = counts.computeIfAbsent(universityId, k -> new int[UniversityRatingStats.SIZE]);
+            for (int i = 0; i < stored.length; i++) {
+                stored[i] += delta[i];
+            }
+        }
+
+        private void addBucket(String key, long[] delta) {
+            long[] stored = buckets.computeIfAbsent(key, k -> new long[StripedRatingAccumulator.BUCKET_SIZE]);
+            for (int i = 0; i < stored.length; i++) {
+                stored[i] += delta[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package dev.mathalama.backend.service;
+
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.Role;
+import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.domain.User;
+import dev.mathalama.backend.repository.ReviewRepository;
+import dev.mathalama.backend.repository.UniversityRepository;
+import dev.mathalama.backend.repository.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Пересчёт агрегатов с нуля одновременно с flush накопленных дельт: отзыв должен быть учтён ровно один раз
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class UniversityAggregateServiceTests {
+
+    private static final int REVIEWS = 3;
+
+    @Autowired
+    private UniversityAggregateService aggregateService;
+
+    @Autowired
+    private RatingAggregator ratingAggregator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private University university;
+    private final List<Review> reviews = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        ratingAggregator.flush();
+        jdbcTemplate.execute("TRUNCATE review, university_rating_stats, university_rating_trend, university, _user RESTART IDENTITY CASCADE");
+        reviews.clear();
+
+        university = universityRepository.save(University.builder().name("КазНУ").city("Алматы").country("Казахстан").averageRating(0.0).build());
+        for (int i = 0; i < REVIEWS; i++) {
+            User author = userRepository.save(User.builder()
+                    .email("student" + i + "@gmail.com")
+                    .firstname("Test")
+                    .lastname("User")
+                    .password("{noop}password")
+                    .role(Role.USER)
+                    .enabled(true)
+                    .build());
+            reviews.add(reviewRepository.save(Review.builder()
+                    .text("Отзыв " + i)
+                    .rating(4).facilities(3).opportunities(5).location(4).internet(2).food(3).difficulty(4)
+                    .status("Current Student")
+                    .university(university)
+                    .user(author)
+                    .build()));
+        }
+    }
+
+    @Test
+    void flushWaitsForRefreshAndDoesNotCountReviewsTwice() throws Exception {
+        // Отзывы уже в таблице, их дельты ещё в памяти
+        reviews.forEach(review -> ratingAggregator.record(review, 1));
+
+        // Пересчёт идёт после коммита вызывающей транзакции
+        transactionTemplate.executeWithoutResult(status -> {
+            aggregateService.refresh(Set.of(university.getId()));
+            assertEquals(0, statsCounts().length, "the recompute waits for the commit");
+        });
+        assertEquals(REVIEWS, ratingCount());
+
+        reviews.forEach(review -> ratingAggregator.record(review, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> locker = lockStatsRow(release);
+        CompletableFuture<Void> refresh = CompletableFuture.runAsync(() -> aggregateService.refresh(Set.of(university.getId())));
+        awaitLockWait();
+
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(ratingAggregator::flush);
+        Thread.sleep(300);
+        assertFalse(flush.isDone(), "flush must wait until the recompute commits");
+
+        release.countDown();
+        locker.get(10, TimeUnit.SECONDS);
+        refresh.get(10, TimeUnit.SECONDS);
+        flush.get(10, TimeUnit.SECONDS);
+        ratingAggregator.flush();
+
+        assertEquals(REVIEWS, ratingCount());
+        assertEquals(REVIEWS, trendReviewCount());
+        assertEquals(4.0, averageRating());
+    }
+
+    @Test
+    void reviewCommittedAfterTheSnapshotIsCountedOnceByTheNextFlush() throws Exception {
+        reviews.forEach(review -> ratingAggregator.record(review, 1));
+        ratingAggregator.flush();
+
+        // Пересчёт уже зафиксировал снимок и забрал дельты, но ждёт блокировку строки агрегатов
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> locker = lockStatsRow(release);
+        CompletableFuture<Void> refresh = CompletableFuture.runAsync(() -> aggregateService.refresh(Set.of(university.getId())));
+        awaitLockWait();
+
+        User author = userRepository.save(User.builder()
+                .email("late@gmail.com")
+                .firstname("Test")
+                .lastname("User")
+                .password("{noop}password")
+                .role(Role.USER)
+                .enabled(true)
+                .build());
+        transactionTemplate.executeWithoutResult(status -> ratingAggregator.record(reviewRepository.save(Review.builder()
+                .text("Поздний отзыв")
+                .rating(2).facilities(3).opportunities(5).location(4).internet(2).food(3).difficulty(4)
+                .status("Current Student")
+                .university(university)
+                .user(author)
+                .build()), 1));
+
+        release.countDown();
+        locker.get(10, TimeUnit.SECONDS);
+        refresh.get(10, TimeUnit.SECONDS);
+        // Снимок пересчёта не видит поздний отзыв, его дельта остаётся для flush
+        assertEquals(REVIEWS, ratingCount());
+        assertEquals(REVIEWS, trendReviewCount());
+
+        ratingAggregator.flush();
+        assertEquals(REVIEWS + 1, ratingCount());
+        assertEquals(REVIEWS + 1, trendReviewCount());
+        assertEquals(3.5, averageRating());
+    }
+
+    @Test
+    void rolledBackRefreshKeepsPendingDeltas() {
+        reviews.forEach(review -> ratingAggregator.record(review, 1));
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            aggregateService.refresh(Set.of(university.getId()));
+            throw new IllegalStateException("rollback");
+        }));
+        ratingAggregator.flush();
+
+        assertEquals(REVIEWS, ratingCount());
+        assertEquals(REVIEWS, trendReviewCount());
+    }
+
+    @Test
+    void deltaRecordedAfterRefreshIsStillFlushed() {
+        reviews.subList(0, REVIEWS - 1).forEach(review -> ratingAggregator.record(review, 1));
+        aggregateService.refresh(Set.of(university.getId()));
+        assertEquals(REVIEWS, ratingCount());
+
+        // Отзыв удалён после пересчёта: дельта -1 должна дойти до таблицы
+        reviewRepository.deleteById(reviews.get(0).getId());
+        ratingAggregator.record(reviews.get(0), -1);
+        ratingAggregator.flush();
+
+        assertEquals(REVIEWS - 1, ratingCount());
+    }
+
+    @Test
+    void concurrentRecordsAndFlushesMatchRecompute() throws Exception {
+        reviews.forEach(review -> ratingAggregator.record(review, 1));
+
+        // Писатели добавляют и снимают одни и те же отзывы (в сумме ноль), флашер пишет в базу параллельно
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            writers.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                for (int i = 0; i < 2_000; i++) {
+                    Review review = reviews.get(i % REVIEWS);
+                    ratingAggregator.record(review, 1);
+                    ratingAggregator.record(review, -1);
+                }
+            }));
+        }
+        CompletableFuture<Void> flusher = CompletableFuture.runAsync(() -> {
+            await(start);
+            while (writers.stream().anyMatch(writer -> !writer.isDone())) {
+                ratingAggregator.flush();
+            }
+        });
+        start.countDown();
+        CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        flusher.get(60, TimeUnit.SECONDS);
+        ratingAggregator.flush();
+
+        assertEquals(REVIEWS, trendReviewCount());
+        assertEquals(4.0, averageRating());
+        Integer[] flushed = statsCounts();
+        aggregateService.refresh(Set.of(university.getId()));
+        assertArrayEquals(statsCounts(), flushed, "flushed histogram must equal the recompute");
+    }
+
+    // Держит строку university_rating_stats до release, не меняя её
+    private CompletableFuture<Void> lockStatsRow(CountDownLatch release) throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<Void> locker = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT university_id FROM university_rating_stats WHERE university_id = ? FOR UPDATE",
+                    Long.class, university.getId());
+            locked.countDown();
+            await(release);
+            status.setRollbackOnly();
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+        return locker;
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Integer waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_locks WHERE NOT granted", Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("refresh never waited for the aggregate row lock");
+    }
+
+    private Integer[] statsCounts() {
+        return jdbcTemplate.query("SELECT counts FROM university_rating_stats WHERE university_id = ?",
+                rs -> rs.next() ? (Integer[]) rs.getArray(1).getArray() : new Integer[0], university.getId());
+    }
+
+    private int ratingCount() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT counts[1] + counts[2] + counts[3] + counts[4] + counts[5] FROM university_rating_stats WHERE university_id = ?",
+                Integer.class, university.getId());
+        return count != null ? count : 0;
+    }
+
+    private int trendReviewCount() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(review_count), 0) FROM university_rating_trend WHERE university_id = ?",
+                Integer.class, university.getId());
+        return count != null ? count : 0;
+    }
+
+    private double averageRating() {
+        return universityRepository.findById(university.getId()).orElseThrow().getAverageRating();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
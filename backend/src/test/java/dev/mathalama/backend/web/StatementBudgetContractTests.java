@@ -0,0 +1,261 @@
+package dev.mathalama.backend.web;
+
+import dev.mathalama.backend.analytics.ReviewAnalyticsService;
+import dev.mathalama.backend.domain.Review;
+import dev.mathalama.backend.domain.Role;
+import dev.mathalama.backend.domain.University;
+import dev.mathalama.backend.domain.User;
+import dev.mathalama.backend.repository.ReviewRepository;
+import dev.mathalama.backend.repository.UniversityRepository;
+import dev.mathalama.backend.repository.UserRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static dev.mathalama.backend.web.StatementBudgetMatchers.noRepeatedStatements;
+import static dev.mathalama.backend.web.StatementBudgetMatchers.statementCount;
+import static dev.mathalama.backend.web.StatementBudgetMatchers.statementExecuted;
+import static dev.mathalama.backend.web.StatementBudgetMatchers.withinStatementBudget;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Контракт на число SQL-запросов для каждого эндпоинта (значения — в @StatementBudget контроллеров)
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class StatementBudgetContractTests {
+
+    private static final int REVIEWS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewAnalyticsService analyticsService;
+
+    private University university;
+    private University otherUniversity;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE review, university_rating_stats, university_rating_trend, university, _user RESTART IDENTITY CASCADE");
+
+        userRepository.save(user("admin@gmail.com", Role.ADMIN));
+        university = universityRepository.save(University.builder().name("КазНУ").city("Алматы").country("Казахстан").averageRating(0.0).build());
+        otherUniversity = universityRepository.save(University.builder().name("МГУ").city("Москва").country("Россия").averageRating(0.0).build());
+        for (int i = 0; i < REVIEWS; i++) {
+            User author = userRepository.save(user("student" + i + "@gmail.com", Role.USER));
+            reviewRepository.save(Review.builder()
+                    .text("Отзыв " + i)
+                    .rating(4).facilities(3).opportunities(5).location(4).internet(2).food(3).difficulty(4)
+                    .status("Current Student")
+                    .tags("IT,спорт")
+                    .university(university)
+                    .user(author)
+                    .build());
+        }
+    }
+
+    @Test
+    void getAllUniversities() throws Exception {
+        mockMvc.perform(get("/api/v1/universities"))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(noRepeatedStatements());
+    }
+
+    @Test
+    void getUniversityById() throws Exception {
+        mockMvc.perform(get("/api/v1/universities/{id}", university.getId()))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(noRepeatedStatements());
+    }
+
+    @Test
+    void getUniversitiesByIds() throws Exception {
+        mockMvc.perform(get("/api/v1/universities").param("ids", university.getId() + "," + otherUniversity.getId()))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(noRepeatedStatements());
+    }
+
+    @Test
+    void compareUniversities() throws Exception {
+        mockMvc.perform(get("/api/v1/universities/compare").param("ids", university.getId() + "," + otherUniversity.getId()))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(noRepeatedStatements());
+    }
+
+    // Теги читаются через JdbcTemplate, а не Hibernate — запрос всё равно должен быть учтён
+    @Test
+    void jdbcTemplateQueriesAreCounted() throws Exception {
+        mockMvc.perform(get("/api/v1/universities/compare").param("ids", university.getId() + "," + otherUniversity.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statementExecuted("FROM university_tag_stats"))
+                .andExpect(statementCount(3));
+    }
+
+    @Test
+    void getUniversityStats() throws Exception {
+        mockMvc.perform(get("/api/v1/universities/{id}/stats", university.getId()))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget());
+    }
+
+    @Test
+    void getUniversityTrend() throws Exception {
+        mockMvc.perform(get("/api/v1/universities/{id}/trend", university.getId()))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget());
+    }
+
+    @Test
+    void suggestDoesNotTouchDatabase() throws Exception {
+        mockMvc.perform(get("/api/v1/universities/suggest").param("q", "каз"))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget());
+    }
+
+    @Test
+    void getReviewsByUniversity() throws Exception {
+        mockMvc.perform(get("/api/v1/reviews/university/{id}", university.getId()))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(noRepeatedStatements());
+    }
+
+    // Выбираются только запрошенные колонки, в ответе только запрошенные поля и id
+    @Test
+    void getUniversityFields() throws Exception {
+        mockMvc.perform(get("/api/v1/universities").param("fields", "name,averageRating"))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(statementCount(1))
+                .andExpect(statementExecuted("SELECT u.id, u.name, u.average_rating FROM university u ORDER BY u.id"))
+                .andExpect(jsonPath("$[0].*", hasSize(3)))
+                .andExpect(jsonPath("$[0].name").exists())
+                .andExpect(jsonPath("$[0].averageRating").exists());
+    }
+
+    @Test
+    void getUniversityFieldsByIdWithTags() throws Exception {
+        mockMvc.perform(get("/api/v1/universities/{id}", university.getId()).param("fields", "city,tags"))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(noRepeatedStatements())
+                .andExpect(statementExecuted("SELECT u.id, u.city FROM university u WHERE"))
+                .andExpect(statementExecuted("SELECT university_id, tags FROM review"))
+                .andExpect(jsonPath("$.*", hasSize(3)))
+                .andExpect(jsonPath("$.city").exists())
+                .andExpect(jsonPath("$.tags").exists());
+    }
+
+    @Test
+    void getReviewFieldsByUniversity() throws Exception {
+        mockMvc.perform(get("/api/v1/reviews/university/{id}", university.getId()).param("fields", "rating,userName"))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(statementExecuted("SELECT r.id, r.rating, usr.firstname, usr.lastname, usr.email, usr.id AS user_present "
+                        + "FROM review r LEFT JOIN _user usr ON usr.id = r.user_id WHERE"))
+                .andExpect(jsonPath("$", hasSize(REVIEWS)))
+                .andExpect(jsonPath("$[0].*", hasSize(3)))
+                .andExpect(jsonPath("$[0].rating").exists())
+                .andExpect(jsonPath("$[0].userName").exists());
+    }
+
+    @Test
+    void unknownFieldIsRejectedWithoutQueries() throws Exception {
+        mockMvc.perform(get("/api/v1/universities").param("fields", "name,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(statementCount(0));
+        mockMvc.perform(get("/api/v1/reviews/university/{id}", university.getId()).param("fields", "email"))
+                .andExpect(status().isBadRequest())
+                .andExpect(statementCount(0));
+    }
+
+    @Test
+    @WithUserDetails(value = "admin@gmail.com", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void getAllReviews() throws Exception {
+        mockMvc.perform(get("/api/v1/reviews"))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget())
+                .andExpect(noRepeatedStatements());
+    }
+
+    @Test
+    @WithUserDetails(value = "admin@gmail.com", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void getAllUsers() throws Exception {
+        mockMvc.perform(get("/api/v1/users"))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget());
+    }
+
+    @Test
+    @WithUserDetails(value = "admin@gmail.com", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void bulkDeleteReviews() throws Exception {
+        mockMvc.perform(post("/api/v1/reviews/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"universityId\": %d}".formatted(university.getId())))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget());
+    }
+
+    @Test
+    @WithUserDetails(value = "admin@gmail.com", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void analyticsIsServedFromSnapshot() throws Exception {
+        analyticsService.refresh();
+        mockMvc.perform(get("/api/v1/admin/analytics/ratings").param("groupBy", "country"))
+                .andExpect(status().isOk())
+                .andExpect(statementCount(0));
+    }
+
+    @Test
+    @WithUserDetails(value = "student0@gmail.com", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void addReview() throws Exception {
+        mockMvc.perform(post("/api/v1/reviews")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"universityId": %d, "text": "Хороший университет", "rating": 5, "facilities": 4,
+                                 "opportunities": 4, "location": 5, "internet": 3, "food": 4, "difficulty": 3,
+                                 "status": "Alumnus", "tags": ["IT"]}
+                                """.formatted(otherUniversity.getId())))
+                .andExpect(status().isOk())
+                .andExpect(withinStatementBudget());
+    }
+
+    private static User user(String email, Role role) {
+        return User.builder()
+                .email(email)
+                .firstname("Test")
+                .lastname("User")
+                .password("{noop}password")
+                .role(role)
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package dev.mathalama.backend.web;
+
+import dev.mathalama.backend.config.RequestPersistenceStats;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.stream.Collectors;
+
+// MockMvc-проверки числа SQL-запросов на запрос (см. PersistenceMetricsFilter и @StatementBudget)
+public final class StatementBudgetMatchers {
+
+    private StatementBudgetMatchers() {
+    }
+
+    // Не больше, чем объявлено в @StatementBudget эндпоинта
+    public static ResultMatcher withinStatementBudget() {
+        return result -> {
+            RequestPersistenceStats stats = stats(result);
+            if (stats.isOverBudget()) {
+                throw new AssertionError("%s executed %d SQL statements, budget is %d%n%s".formatted(
+                        stats.getEndpoint(), stats.getStatements(), stats.getBudget(), describe(stats)));
+            }
+        };
+    }
+
+    public static ResultMatcher statementCount(int expected) {
+        return result -> {
+            RequestPersistenceStats stats = stats(result);
+            if (stats.getStatements() != expected) {
+                throw new AssertionError("%s executed %d SQL statements, expected %d%n%s".formatted(
+                        stats.getEndpoint(), stats.getStatements(), expected, describe(stats)));
+            }
+        };
+    }
+
+    // Среди выполненных запросов есть содержащий этот фрагмент SQL
+    public static ResultMatcher statementExecuted(String fragment) {
+        return result -> {
+            RequestPersistenceStats stats = stats(result);
+            if (stats.getShapes().keySet().stream().noneMatch(shape -> shape.contains(fragment))) {
+                throw new AssertionError("%s did not execute SQL containing '%s'%n%s".formatted(
+                        stats.getEndpoint(), fragment, describe(stats)));
+            }
+        };
+    }
+
+    // Один и тот же SQL не должен выполняться больше одного раза (признак N+1)
+    public static ResultMatcher noRepeatedStatements() {
+        return result -> {
+            RequestPersistenceStats stats = stats(result);
+            if (stats.getShapes().values().stream().anyMatch(count -> count > 1)) {
+                throw new AssertionError("%s repeats SQL statements (possible N+1)%n%s".formatted(
+                        stats.getEndpoint(), describe(stats)));
+            }
+        };
+    }
+
+    private static RequestPersistenceStats stats(MvcResult result) {
+        Object stats = result.getRequest().getAttribute(RequestPersistenceStats.REQUEST_ATTRIBUTE);
+        if (stats == null) {
+            throw new AssertionError("No SQL statistics recorded; is PersistenceMetricsFilter applied to " +
+                    result.getRequest().getRequestURI() + "?");
+        }
+        return (RequestPersistenceStats) stats;
+    }
+
+    private static String describe(RequestPersistenceStats stats) {
+        return stats.getShapes().entrySet().stream()
+                .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from 'react';
 import { useAuth } from '../context/AuthContext';
 import api from '../services/api';
+import type { AxiosResponse } from 'axios';
 import type { User, University, Review } from '../types';
 import { Trash2, Edit2, X, Save } from 'lucide-react';
 
@@ -26,9 +27,18 @@ const COUNTRIES = [
   "Venezuela", "Vietnam"
 ];
 
+// The users endpoint is keyset-paginated; the next page's cursor comes in X-Next-Cursor
+const nextCursor = (headers: AxiosResponse['headers']): string | null => {
+  const cursor = headers['x-next-cursor'];
+  return typeof cursor === 'string' && cursor !== '' ? cursor : null;
+};
+
 const AdminPage: React.FC = () => {
   const { user } = useAuth();
   const [users, setUsers] = useState<User[]>([]);
+  // Keyset cursor of the next page of users (X-Next-Cursor), null on the last page
+  const [usersCursor, setUsersCursor] = useState<string | null>(null);
+  const [loadingMoreUsers, setLoadingMoreUsers] = useState(false);
   const [universities, setUniversities] = useState<University[]>([]);
   const [reviews, setReviews] = useState<Review[]>([]);
   const [activeTab, setActiveTab] = useState<'users' | 'universities' | 'reviews'>('users');
@@ -56,6 +66,7 @@ const AdminPage: React.FC = () => {
       if (activeTab === 'users') {
         const response = await api.get<User[]>('/users');
         setUsers(Array.isArray(response.data) ? response.data : []);
+        setUsersCursor(nextCursor(response.headers));
       } else if (activeTab === 'universities') {
         const response = await api.get<University[]>('/universities');
         setUniversities(Array.isArray(response.data) ? response.data : []);
@@ -66,7 +77,10 @@ const AdminPage: React.FC = () => {
     } catch (error) {
       console.error('Error fetching data:', error);
       // Reset state on error to avoid stale non-array data
-      if (activeTab === 'users') setUsers([]);
+      if (activeTab === 'users') {
+        setUsers([]);
+        setUsersCursor(null);
+      }
       if (activeTab === 'universities') setUniversities([]);
       if (activeTab === 'reviews') setReviews([]);
     } finally {
@@ -74,6 +88,21 @@ const AdminPage: React.FC = () => {
     }
   };
 
+  const loadMoreUsers = async () => {
+    if (!usersCursor) return;
+    setLoadingMoreUsers(true);
+    try {
+      const response = await api.get<User[]>('/users', { params: { cursor: usersCursor } });
+      const page = Array.isArray(response.data) ? response.data : [];
+      setUsers(prev => [...prev, ...page]);
+      setUsersCursor(nextCursor(response.headers));
+    } catch (error) {
+      console.error('Error fetching users:', error);
+    } finally {
+      setLoadingMoreUsers(false);
+    }
+  };
+
   const deleteUser = async (id: number) => {
     if (!confirm('Are you sure you want to delete this user?')) return;
     try {
@@ -258,6 +287,17 @@ const AdminPage: React.FC = () => {
                 </li>
             ))}
           </ul>
+           {activeTab === 'users' && usersCursor && (
+               <div className="p-4 text-center">
+                   <button
+                       onClick={loadMoreUsers}
+                       disabled={loadingMoreUsers}
+                       className="text-indigo-600 hover:text-indigo-900 text-sm font-medium disabled:opacity-50"
+                   >
+                       {loadingMoreUsers ? 'Loading...' : 'Load more users'}
+                   </button>
+               </div>
+           )}
            {((activeTab === 'users' && users.length === 0) || 
              (activeTab === 'universities' && universities.length === 0) ||
              (activeTab === 'reviews' && reviews.length === 0)) && (